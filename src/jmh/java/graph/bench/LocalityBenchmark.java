@@ -0,0 +1,65 @@
+package graph.bench;
+import graph.dagsp.DAGShortestPath;
+import graph.model.Graph;
+import graph.scc.CondensationGraph;
+import graph.scc.Kosaraju;
+import graph.scc.Tarjan;
+import graph.topo.TopologicalSort;
+import graph.util.GraphGenerator;
+import graph.util.VertexReordering;
+import org.openjdk.jmh.annotations.*;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+/**
+ * Effect of vertex relabeling on SCC and DAG DP.
+ *
+ * The generated graph is first shuffled (SHUFFLED = ids scattered as in raw JSON
+ * input), then optionally relabeled with BFS or RCM; the condensation DAG is
+ * relabeled in topological order for every strategy except SHUFFLED.
+ * Cache misses per operation (Linux perf required):
+ *   java -jar target/benchmarks.jar LocalityBenchmark -prof perfnorm
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2)
+public class LocalityBenchmark {
+    @Param({"100000", "1000000"})
+    public int vertices;
+
+    @Param({"SHUFFLED", "BFS", "RCM"})
+    public String ordering;
+
+    private Graph graph;
+    private Graph dag;
+    private List<Integer> topo;
+    private int sourceComp;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Graph generated = new GraphGenerator().seed(42L).vertices(vertices).toGraph();
+        graph = VertexReordering.shuffle(vertices, 7L).apply(generated);
+        if (!ordering.equals("SHUFFLED"))
+            graph = VertexReordering.compute(graph, VertexReordering.Strategy.valueOf(ordering)).apply(graph);
+        Kosaraju.Result scc = Tarjan.run(graph);
+        dag = CondensationGraph.build(graph, scc);
+        // scatter the component ids too, then restore a topological layout unless SHUFFLED
+        dag = VertexReordering.shuffle(dag.getN(), 11L).apply(dag);
+        if (!ordering.equals("SHUFFLED"))
+            dag = VertexReordering.compute(dag, VertexReordering.Strategy.TOPOLOGICAL).apply(dag);
+        topo = TopologicalSort.sort(dag);
+        sourceComp = topo.get(0);
+    }
+
+    @Benchmark
+    public Kosaraju.Result tarjan() {
+        return Tarjan.run(graph);
+    }
+
+    @Benchmark
+    public DAGShortestPath.Result shortestPath() {
+        return DAGShortestPath.run(dag, topo, sourceComp);
+    }
+}
@@ -0,0 +1,93 @@
+package graph.bench;
+import graph.dagsp.DAGLongestPath;
+import graph.dagsp.DAGShortestPath;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+import graph.scc.CondensationGraph;
+import graph.scc.ConnectedComponents;
+import graph.scc.Kosaraju;
+import graph.topo.TopologicalSort;
+import graph.util.GraphGenerator;
+import graph.util.Metrics;
+import org.openjdk.jmh.annotations.*;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+/**
+ * JMH benchmarks for each stage of the pipeline:
+ * SCC (Kosaraju) -> condensation -> topological sort -> DAG shortest / longest path.
+ *
+ * Every stage gets its inputs precomputed in setup, so each benchmark measures one stage only.
+ * The undirected* benchmarks compare Kosaraju with the parallel union-find on the same
+ * edges read as an undirected graph.
+ * Run with allocation profiling:
+ *   java -jar target/benchmarks.jar PipelineBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2)
+public class PipelineBenchmark {
+    /** Number of vertices of the generated graph (GraphGenerator defaults otherwise). */
+    @Param({"1000", "10000", "100000"})
+    public int vertices;
+
+    private Graph graph;
+    private Kosaraju.Result scc;
+    private Graph dag;
+    private List<Integer> topo;
+    private int sourceComp;
+    private CsrGraph undirected;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = new GraphGenerator().seed(42L).vertices(vertices).toGraph();
+        scc = Kosaraju.run(graph);
+        dag = CondensationGraph.build(graph, scc);
+        topo = TopologicalSort.sort(dag);
+        sourceComp = scc.component[0];
+        CsrGraph csr = graph.toCsr();
+        CsrGraph.Builder b = new CsrGraph.Builder(false);
+        for (int u = 0; u < csr.getN(); u++) {
+            for (int i = csr.getOffsets()[u]; i < csr.getOffsets()[u + 1]; i++) b.addEdge(u, csr.getTargets()[i], 1);
+        }
+        undirected = b.build(csr.getN());
+    }
+
+    @Benchmark
+    public Kosaraju.Result undirectedKosaraju() {
+        return Kosaraju.run(undirected, Metrics.NOOP);
+    }
+
+    @Benchmark
+    public Kosaraju.Result undirectedUnionFind() {
+        return ConnectedComponents.run(undirected, ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public Kosaraju.Result scc() {
+        return Kosaraju.run(graph);
+    }
+
+    @Benchmark
+    public Graph condensation() {
+        return CondensationGraph.build(graph, scc);
+    }
+
+    @Benchmark
+    public List<Integer> topologicalSort() {
+        return TopologicalSort.sort(dag);
+    }
+
+    @Benchmark
+    public DAGShortestPath.Result shortestPath() {
+        return DAGShortestPath.run(dag, topo, sourceComp);
+    }
+
+    @Benchmark
+    public DAGLongestPath.Result longestPath() {
+        return DAGLongestPath.run(dag, topo, sourceComp);
+    }
+}
@@ -1,11 +1,9 @@
 package graph;
-import graph.scc.Kosaraju;
-import graph.scc.CondensationGraph;
 import graph.util.GraphLoader;
+import graph.util.GraphPipeline;
+import graph.util.StageProfiler;
+import graph.util.StageProfiler.Stage;
 import java.util.List;
-import graph.topo.TopologicalSort;
-import graph.dagsp.DAGLongestPath;
-import graph.dagsp.DAGShortestPath;
 import java.util.*;
 /**
  * Main class for Assignment 4: Smart City
@@ -17,7 +15,8 @@ import java.util.*;
  *  4. Perform topological sorting on the DAG.
  *  5. Output the SCCs, their sizes, the condensation graph, and topological order.
  *
- * Note: The same main pipeline can later be extended for shortest and longest paths (Task 1.3).
+ * Stages run through {@link GraphPipeline}, which caches the source-independent
+ * results, so further path queries only pay for the DP.
  */
 public class Main {
     /**
@@ -26,15 +25,21 @@ public class Main {
      */
     public static void main(String[] args) {
         // === Step 1: Load dataset ===
+        StageProfiler profiler = new StageProfiler(); // emits JFR events when a recording is active
+        var span = profiler.start(Stage.LOAD, "large_1.json");
         var ds = GraphLoader.loadFromResource("large_1.json");
+        span.end();
         System.out.println("File: " + ds.name);
         System.out.println("Vertices: " + ds.graph.getN());
         System.out.println("Edges: " + ds.graph.getEdgesCount());
         System.out.println("Source " + ds.source);
         System.out.println(ds.graph);
 
+        var pipeline = GraphPipeline.of(ds.graph);
         //  Run Kosaraju algorithm
-        var result = Kosaraju.run(ds.graph);
+        span = profiler.start(Stage.SCC, ds.name);
+        var result = pipeline.scc();
+        span.end();
 
         System.out.println("\nStrongly Connected Components:");
         for (int i = 0; i < result.components.size(); i++) {
@@ -43,12 +48,16 @@ public class Main {
         }
 
         //  Build condensation DAG
-        var condensation = CondensationGraph.build(ds.graph, result);
+        span = profiler.start(Stage.CONDENSATION, ds.name);
+        var condensation = pipeline.condensation();
+        span.end();
         System.out.println("\nCondensation DAG (each node = one SCC):");
         System.out.println(condensation);
 
         //  Topological Sort
-        var topoOrder = TopologicalSort.sort(condensation);
+        span = profiler.start(Stage.TOPO_SORT, ds.name);
+        var topoOrder = pipeline.topologicalOrder();
+        span.end();
         System.out.println("\nTopological Order of SCCs: " + topoOrder);
 
         // Derived order of original tasks
@@ -61,10 +70,9 @@ public class Main {
         System.out.println("\nSource component in DAG: " + sourceComp);
 
         // --- Shortest Paths ---
-        long t1 = System.nanoTime();
-        var sp = DAGShortestPath.run(condensation, topoOrder, sourceComp);
-        long t2 = System.nanoTime();
-        System.out.printf("Shortest paths computed in %.3f ms%n", (t2 - t1) / 1_000_000.0);
+        span = profiler.start(Stage.SHORTEST_PATH, ds.name);
+        var sp = pipeline.shortestPaths(ds.source);
+        System.out.printf("Shortest paths computed in %.3f ms%n", span.end() / 1_000_000.0);
 
         System.out.println("Shortest distances from source:");
         System.out.println(Arrays.toString(sp.dist));
@@ -74,10 +82,9 @@ public class Main {
         System.out.println("Shortest path to SCC " + targetComp + ": " + sp.reconstruct(targetComp));
 
         // --- Longest Path (Critical Path) ---
-        long t3 = System.nanoTime();
-        var lp = DAGLongestPath.run(condensation, topoOrder, sourceComp);
-        long t4 = System.nanoTime();
-        System.out.printf("\nLongest path computed in %.3f ms%n", (t4 - t3) / 1_000_000.0);
+        span = profiler.start(Stage.LONGEST_PATH, ds.name);
+        var lp = pipeline.longestPaths(ds.source);
+        System.out.printf("\nLongest path computed in %.3f ms%n", span.end() / 1_000_000.0);
 
         System.out.println("Critical path (SCC indices): " + lp.criticalPath());
         System.out.println("Critical path length: " + lp.length());
@@ -0,0 +1,146 @@
+package graph.dagsp;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+import graph.util.Metrics;
+import graph.util.Metrics.Counter;
+import java.util.*;
+/**
+ * Shortest distances, longest (critical) distances and path counts from one
+ * source in a single sweep over the topological order.
+ *
+ * Running DAGShortestPath and DAGLongestPath separately walks the adjacency
+ * arrays twice; here every edge is read once and feeds all three DPs.
+ * Algorithm:
+ *  1. shortest[src] = longest[src] = 0, count[src] = 1; all others unreachable.
+ *  2. For each reached u in topological order and each edge (u -> v, w):
+ *       shortest[v] = min(shortest[v], shortest[u] + w)
+ *       longest[v]  = max(longest[v], longest[u] + w)
+ *       count[v]   += count[u]   (saturates at Long.MAX_VALUE)
+ *  3. Optional slack (edge weight_model = task durations on the edges):
+ *       earliest start = longest[v]; latest start comes from one backward sweep,
+ *       latest[v] = min(latest[x] - w) over edges v -> x, sinks = project length.
+ *       slack = latest - earliest; zero-slack vertices are on a critical path.
+ * Time complexity: O(V + E) for the forward sweep (+ O(V + E) with slack)
+ */
+public class DAGFusedPaths {
+    /** All DP arrays from one sweep; sentinels match DAGShortestPath / DAGLongestPath. */
+    public static class Result {
+        public final long[] shortest;       // Long.MAX_VALUE = unreachable
+        public final int[] shortestParent;
+        public final long[] longest;        // Long.MIN_VALUE = unreachable
+        public final int[] longestParent;
+        public final long[] pathCount;      // distinct src -> v paths, 0 = unreachable
+        public final long[] latest;         // latest start times, null unless slack was requested
+        public final int src;
+        public final int argmax;            // end of the critical path
+
+        public Result(long[] shortest, int[] shortestParent, long[] longest, int[] longestParent,
+                      long[] pathCount, long[] latest, int src, int argmax) {
+            this.shortest = shortest;
+            this.shortestParent = shortestParent;
+            this.longest = longest;
+            this.longestParent = longestParent;
+            this.pathCount = pathCount;
+            this.latest = latest;
+            this.src = src;
+            this.argmax = argmax;
+        }
+        /** Length of the critical path (project length). */
+        public long projectLength() {
+            return longest[argmax];
+        }
+        /**
+         * Latest start minus earliest start of v (Long.MAX_VALUE if unreachable).
+         *
+         * @throws IllegalStateException if the result was computed without slack
+         */
+        public long slack(int v) {
+            if (latest == null) throw new IllegalStateException("Slack was not computed");
+            return pathCount[v] == 0 ? Long.MAX_VALUE : latest[v] - longest[v];
+        }
+        /** Shortest path src -> target as an int array (empty if unreachable). */
+        public int[] shortestPath(int target) {
+            if (pathCount[target] == 0) return new int[0];
+            return PathWorkspace.pathArray(shortestParent, src, target);
+        }
+        /** Critical path src -> argmax as an int array. */
+        public int[] criticalPath() {
+            return PathWorkspace.pathArray(longestParent, src, argmax);
+        }
+        /** Shortest-path view compatible with DAGShortestPath (arrays are shared). */
+        public DAGShortestPath.Result toShortest() {
+            return new DAGShortestPath.Result(shortest, shortestParent, src);
+        }
+        /** Longest-path view compatible with DAGLongestPath (arrays are shared). */
+        public DAGLongestPath.Result toLongest() {
+            return new DAGLongestPath.Result(longest, longestParent, src, argmax);
+        }
+    }
+
+    /** Runs the fused DP without slack. */
+    public static Result run(Graph dag, List<Integer> topo, int src) {
+        return run(dag.toCsr(), topo, src, false, Metrics.NOOP);
+    }
+    /** Runs the fused DP, optionally with latest-start times for slack. */
+    public static Result run(Graph dag, List<Integer> topo, int src, boolean withSlack) {
+        return run(dag.toCsr(), topo, src, withSlack, Metrics.NOOP);
+    }
+    /** Runs the fused DP on the CSR arrays and reports scanned edges and successful relaxations. */
+    public static Result run(CsrGraph dag, List<Integer> topo, int src, boolean withSlack, Metrics metrics) {
+        int n = dag.getN();
+        int[] off = dag.getOffsets(), to = dag.getTargets(), w = dag.getWeights();
+        long[] shortest = new long[n], longest = new long[n], count = new long[n];
+        int[] sp = new int[n], lp = new int[n];
+        Arrays.fill(shortest, Long.MAX_VALUE);
+        Arrays.fill(longest, Long.MIN_VALUE);
+        Arrays.fill(sp, -1);
+        Arrays.fill(lp, -1);
+        shortest[src] = longest[src] = 0;
+        count[src] = 1;
+        long scanned = 0, relaxed = 0;
+        // Step 1: one forward sweep feeds all three DPs
+        for (int k = 0; k < topo.size(); k++) {
+            int u = topo.get(k);
+            if (count[u] == 0) continue;
+            long su = shortest[u], lu = longest[u], cu = count[u];
+            scanned += off[u + 1] - off[u];
+            for (int i = off[u]; i < off[u + 1]; i++) {
+                int v = to[i];
+                if (su + w[i] < shortest[v]) {
+                    shortest[v] = su + w[i];
+                    sp[v] = u;
+                    relaxed++;
+                }
+                if (lu + w[i] > longest[v]) {
+                    longest[v] = lu + w[i];
+                    lp[v] = u;
+                    relaxed++;
+                }
+                long c = count[v] + cu;
+                count[v] = c < 0 ? Long.MAX_VALUE : c; // saturate on overflow
+            }
+        }
+        metrics.add(Counter.EDGES_PROCESSED, scanned);
+        metrics.add(Counter.EDGE_RELAXATIONS, relaxed);
+        // Step 2: end of the critical path
+        int argmax = src;
+        for (int v = 0; v < n; v++) {
+            if (longest[v] > longest[argmax]) argmax = v;
+        }
+        // Step 3: latest start times (backward sweep)
+        long[] latest = null;
+        if (withSlack) {
+            latest = new long[n];
+            Arrays.fill(latest, Long.MIN_VALUE);
+            long project = longest[argmax];
+            for (int k = topo.size() - 1; k >= 0; k--) {
+                int u = topo.get(k);
+                if (count[u] == 0) continue;
+                long best = project;
+                for (int i = off[u]; i < off[u + 1]; i++) best = Math.min(best, latest[to[i]] - w[i]);
+                latest[u] = best;
+            }
+        }
+        return new Result(shortest, sp, longest, lp, count, latest, src, argmax);
+    }
+}
@@ -1,6 +1,8 @@
 package graph.dagsp;
-import graph.model.Edge;
+import graph.model.CsrGraph;
 import graph.model.Graph;
+import graph.util.Metrics;
+import graph.util.Metrics.Counter;
 import java.util.*;
 /**
  * Computes the longest (critical) path in a DAG.
@@ -38,30 +40,49 @@ public class DAGLongestPath {
             return path;
         }
 
+        /** Same as criticalPath() but as an int array (no boxing). */
+        public int[] criticalPathArray() {
+            return PathWorkspace.pathArray(parent, src, argmax);
+        }
+
         public long length() {
             return dist[argmax];
         }
     }
     /** Runs longest-path DP on DAG. */
     public static Result run(Graph dag, List<Integer> topo, int src) {
+        return run(dag.toCsr(), topo, src, Metrics.NOOP);
+    }
+    /** Same as run(Graph, List, int) but reports scanned edges and successful relaxations. */
+    public static Result run(Graph dag, List<Integer> topo, int src, Metrics metrics) {
+        return run(dag.toCsr(), topo, src, metrics);
+    }
+    /** Runs longest-path DP directly on the CSR arrays. */
+    public static Result run(CsrGraph dag, List<Integer> topo, int src, Metrics metrics) {
         int n = dag.getN();
+        int[] off = dag.getOffsets(), to = dag.getTargets(), w = dag.getWeights();
         long NEG_INF = Long.MIN_VALUE ;
         long[] dist = new long[n];
         int[] parent = new int[n];
         Arrays.fill(dist, NEG_INF);
         Arrays.fill(parent, -1);
         dist[src] = 0;
+        long scanned = 0, relaxed = 0;
         // Step 1: DP over topological order
         for (int u : topo) {
             if (dist[u] == NEG_INF) continue;
-            for (Edge e : dag.getAdj().get(u)) {
-                long cand = dist[u] + e.getW();
-                if (cand > dist[e.getV()]) {
-                    dist[e.getV()] = cand;
-                    parent[e.getV()] = u;
+            scanned += off[u + 1] - off[u];
+            for (int i = off[u]; i < off[u + 1]; i++) {
+                long cand = dist[u] + w[i];
+                if (cand > dist[to[i]]) {
+                    dist[to[i]] = cand;
+                    parent[to[i]] = u;
+                    relaxed++;
                 }
             }
         }
+        metrics.add(Counter.EDGES_PROCESSED, scanned);
+        metrics.add(Counter.EDGE_RELAXATIONS, relaxed);
         // Step 2: find vertex with maximum path length
         int argmax = src;
         for (int v = 0; v < n; v++) {
@@ -69,4 +90,24 @@ public class DAGLongestPath {
         }
         return new Result(dist, parent, src, argmax);
     }
+    /**
+     * Same DP, but writes into a reusable workspace instead of allocating
+     * dist/parent arrays; nothing is allocated per query.
+     */
+    public static PathWorkspace run(CsrGraph dag, List<Integer> topo, int src, PathWorkspace ws) {
+        if (ws.capacity() < dag.getN())
+            throw new IllegalArgumentException("Workspace holds " + ws.capacity() + " vertices, DAG has " + dag.getN());
+        int[] off = dag.getOffsets(), to = dag.getTargets(), w = dag.getWeights();
+        ws.reset(Objective.LONGEST, src);
+        for (int k = 0; k < topo.size(); k++) {
+            int u = topo.get(k);
+            if (!ws.reachable(u)) continue;
+            long du = ws.rawDist(u);
+            for (int i = off[u]; i < off[u + 1]; i++) {
+                long cand = du + w[i];
+                if (!ws.reachable(to[i]) || cand > ws.rawDist(to[i])) ws.set(to[i], cand, u);
+            }
+        }
+        return ws;
+    }
 }
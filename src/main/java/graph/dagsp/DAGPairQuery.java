@@ -0,0 +1,140 @@
+package graph.dagsp;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+import java.util.*;
+/**
+ * Point-to-point shortest path queries on a DAG.
+ *
+ * A full DAGShortestPath run relaxes every vertex in the topological order.
+ * For a single (src, target) pair only a small part matters:
+ *  1. Range: only vertices with topo position between pos[src] and pos[target]
+ *     can lie on a src -> target path.
+ *  2. Backward marks: a backward search from target (limited to that range)
+ *     marks the vertices that can reach target; all others are skipped.
+ *     Marks are kept and reused while queries ask for the same target.
+ *     With a {@link ReachabilityIndex} the marks come from the index instead.
+ *  3. Early stop: the DP ends at target (its distance is final there), or
+ *     as soon as no reached vertex is left in the range.
+ *
+ * Distances and parents live in a {@link PathWorkspace}, so a query allocates
+ * nothing but the returned path. One instance per thread (not thread-safe).
+ */
+public class DAGPairQuery {
+    private final int[] off, to, w;
+    private final int[] inOff, inTo;
+    private final int[] order, pos;
+    private final ReachabilityIndex index;
+    private final PathWorkspace ws;
+    // backward marks for markTarget, valid for positions >= markBound
+    private final int[] mark, stack;
+    private int markEpoch, markTarget = -1, markBound;
+    private int lastProcessed;
+
+    private DAGPairQuery(CsrGraph dag, List<Integer> topo, ReachabilityIndex index) {
+        int n = dag.getN();
+        off = dag.getOffsets();
+        to = dag.getTargets();
+        w = dag.getWeights();
+        this.index = index;
+        order = new int[n];
+        pos = new int[n];
+        for (int k = 0; k < topo.size(); k++) {
+            order[k] = topo.get(k);
+            pos[order[k]] = k;
+        }
+        if (index == null) {
+            CsrGraph t = dag.transpose();
+            inOff = t.getOffsets();
+            inTo = t.getTargets();
+            mark = new int[n];
+            stack = new int[n];
+        } else {
+            inOff = inTo = mark = stack = null;
+        }
+        ws = new PathWorkspace(n);
+    }
+
+    /** Prepares queries on dag; backward marks are computed per target. */
+    public static DAGPairQuery prepare(Graph dag, List<Integer> topo) {
+        return new DAGPairQuery(dag.toCsr(), topo, null);
+    }
+    /** Prepares queries that take reachability from a prebuilt index instead of backward marks. */
+    public static DAGPairQuery prepare(Graph dag, List<Integer> topo, ReachabilityIndex index) {
+        return new DAGPairQuery(dag.toCsr(), topo, index);
+    }
+
+    /** Shortest distance src -> target, or Long.MAX_VALUE if unreachable. */
+    public long distance(int src, int target) {
+        return run(src, target).dist(target);
+    }
+    /** One shortest path src -> target (empty if unreachable). */
+    public int[] path(int src, int target) {
+        return run(src, target).path(target);
+    }
+    /**
+     * Runs the bounded DP and returns the workspace; only dist/parent of
+     * vertices on src -> target paths are meaningful. Valid until the next query.
+     */
+    public PathWorkspace run(int src, int target) {
+        ws.reset(Objective.SHORTEST, src);
+        lastProcessed = 0;
+        int from = pos[src], until = pos[target];
+        if (from > until) return ws;        // target comes before src: unreachable
+        if (src == target) return ws;
+        if (index != null ? !index.reaches(src, target) : !markBackward(target, from)) return ws;
+
+        int active = 1; // reached vertices not yet processed
+        // Step 1: DP over the topological range, skipping vertices that cannot reach target
+        for (int k = from; k < until && active > 0; k++) {
+            int u = order[k];
+            if (!ws.reachable(u)) continue;
+            active--;
+            lastProcessed++;
+            long du = ws.rawDist(u);
+            for (int i = off[u]; i < off[u + 1]; i++) {
+                int v = to[i];
+                if (pos[v] > until || !canReach(v, target)) continue;
+                long cand = du + w[i];
+                if (!ws.reachable(v)) {
+                    ws.set(v, cand, u);
+                    active++;
+                } else if (cand < ws.rawDist(v)) {
+                    ws.set(v, cand, u);
+                }
+            }
+        }
+        return ws;
+    }
+    /** Vertices whose edges were relaxed by the last query (compare with n for a full run). */
+    public int lastProcessed() {
+        return lastProcessed;
+    }
+
+    private boolean canReach(int v, int target) {
+        return index != null ? index.reaches(v, target) : mark[v] == markEpoch;
+    }
+    // Marks every vertex with position >= bound that can reach target; returns mark of order[bound].
+    private boolean markBackward(int target, int bound) {
+        if (target != markTarget || bound < markBound) {
+            if (++markEpoch == 0) { // stamp overflow: clear once
+                Arrays.fill(mark, 0);
+                markEpoch = 1;
+            }
+            int sp = 0;
+            mark[target] = markEpoch;
+            stack[sp++] = target;
+            while (sp > 0) {
+                int v = stack[--sp];
+                for (int i = inOff[v]; i < inOff[v + 1]; i++) {
+                    int u = inTo[i];
+                    if (mark[u] == markEpoch || pos[u] < bound) continue;
+                    mark[u] = markEpoch;
+                    stack[sp++] = u;
+                }
+            }
+            markTarget = target;
+            markBound = bound;
+        }
+        return mark[order[bound]] == markEpoch;
+    }
+}
@@ -0,0 +1,101 @@
+package graph.dagsp;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+/**
+ * Multi-source shortest / longest paths over one topological order.
+ *
+ * The topological order is converted to primitive arrays once and shared by
+ * all sources; every source is one independent DP, so sources are spread over a
+ * ForkJoinPool. For each source the DP starts at its own topological position,
+ * because nothing earlier in the order is reachable from it.
+ * Time complexity: O(k * (V + E)) work for k sources, divided over the workers.
+ */
+public class DAGPathBatch {
+    /**
+     * Receives the distances of one source. The array is a buffer that is reused
+     * for a later source, so copy what must be kept. Called concurrently.
+     */
+    @FunctionalInterface
+    public interface ResultConsumer {
+        void accept(int sourceIndex, int source, long[] dist);
+    }
+
+    /** Distance matrix on the common pool: row i holds distances from sources[i]. */
+    public static long[][] distanceMatrix(Graph dag, List<Integer> topo, int[] sources, Objective objective) {
+        return distanceMatrix(dag.toCsr(), topo, sources, objective, ForkJoinPool.commonPool());
+    }
+    /** Distance matrix: row i holds distances from sources[i]. */
+    public static long[][] distanceMatrix(CsrGraph dag, List<Integer> topo, int[] sources,
+                                         Objective objective, ForkJoinPool pool) {
+        Plan plan = new Plan(dag, topo);
+        long[][] matrix = new long[sources.length][];
+        pool.submit(() -> IntStream.range(0, sources.length).parallel().forEach(i -> {
+            long[] row = new long[plan.n];
+            plan.run(sources[i], objective, row);
+            matrix[i] = row;
+        })).join();
+        return matrix;
+    }
+    /**
+     * Streams per-source results to the consumer (in no particular order).
+     * Distance buffers are pooled for the duration of the call: a source takes a
+     * free buffer (or allocates one) and returns it when the consumer is done, so
+     * at most one buffer per concurrently running source exists and all of them
+     * are garbage once the call returns.
+     */
+    public static void forEach(CsrGraph dag, List<Integer> topo, int[] sources, Objective objective,
+                               ForkJoinPool pool, ResultConsumer consumer) {
+        Plan plan = new Plan(dag, topo);
+        Queue<long[]> buffers = new ConcurrentLinkedQueue<>();
+        pool.submit(() -> IntStream.range(0, sources.length).parallel().forEach(i -> {
+            long[] dist = buffers.poll();
+            if (dist == null) dist = new long[plan.n];
+            try {
+                plan.run(sources[i], objective, dist);
+                consumer.accept(i, sources[i], dist);
+            } finally {
+                buffers.offer(dist);
+            }
+        })).join();
+    }
+
+    /** Read-only arrays shared by all sources. */
+    private static class Plan {
+        final int n;
+        final int[] off, to, w;
+        final int[] order; // topological order
+        final int[] pos;   // position of each vertex in order
+
+        Plan(CsrGraph dag, List<Integer> topo) {
+            n = dag.getN();
+            off = dag.getOffsets();
+            to = dag.getTargets();
+            w = dag.getWeights();
+            order = new int[topo.size()];
+            pos = new int[n];
+            for (int k = 0; k < order.length; k++) {
+                order[k] = topo.get(k);
+                pos[order[k]] = k;
+            }
+        }
+
+        // Single-source DP into dist (all n entries are overwritten).
+        void run(int src, Objective objective, long[] dist) {
+            long none = objective.unreachable;
+            Arrays.fill(dist, none);
+            dist[src] = 0;
+            for (int k = pos[src]; k < order.length; k++) {
+                int u = order[k];
+                if (dist[u] == none) continue;
+                for (int i = off[u]; i < off[u + 1]; i++) {
+                    long cand = dist[u] + w[i];
+                    if (objective.improves(cand, dist[to[i]])) dist[to[i]] = cand;
+                }
+            }
+        }
+    }
+}
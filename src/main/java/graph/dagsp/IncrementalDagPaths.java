@@ -0,0 +1,195 @@
+package graph.dagsp;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+import java.util.*;
+/**
+ * Keeps a DAG shortest/longest path result up to date while edge weights change.
+ *
+ * Instead of re-running the DP over the whole topological order, an update
+ * re-evaluates only vertices downstream of the changed edge:
+ *  1. Queue the head v of the changed edge (keyed by its topological position).
+ *  2. Pop the earliest queued vertex and recompute it from its in-edges
+ *     ("pull": best of dist[x] + w over x -> y).
+ *  3. If its distance changed, queue its successors; otherwise propagation stops there.
+ *
+ * Vertices are popped in topological order, so each one is recomputed at most
+ * once per update, after all of its changed predecessors.
+ * The dist/parent arrays of the wrapped Result are updated in place.
+ * Edge weights are copied; the Graph itself is not modified.
+ */
+public class IncrementalDagPaths {
+    private final Objective objective;
+    private final int n, src;
+    private final int[] off, to, w;         // forward CSR (w is a private copy)
+    private final int[] inOff, inFrom, inEdge; // in-edges: source vertex and forward edge index
+    private final int[] pos;                // topological position of each vertex
+    private final long[] dist;
+    private final int[] parent;
+    // pending vertices: min-heap of topological positions
+    private final int[] heap, queued;
+    private int heapSize, stamp;
+    private int lastTouched;
+    private long totalTouched;
+
+    /** Wraps an existing shortest path result. */
+    public IncrementalDagPaths(Graph dag, List<Integer> topo, DAGShortestPath.Result result) {
+        this(dag.toCsr(), topo, Objective.SHORTEST, result.dist, result.parent, result.src);
+    }
+    /** Wraps an existing longest path result (argmax is recomputed by {@link #longestResult()}). */
+    public IncrementalDagPaths(Graph dag, List<Integer> topo, DAGLongestPath.Result result) {
+        this(dag.toCsr(), topo, Objective.LONGEST, result.dist, result.parent, result.src);
+    }
+    private IncrementalDagPaths(CsrGraph dag, List<Integer> topo, Objective objective,
+                                long[] dist, int[] parent, int src) {
+        this.objective = objective;
+        this.n = dag.getN();
+        this.src = src;
+        this.off = dag.getOffsets();
+        this.to = dag.getTargets();
+        this.w = dag.getWeights().clone();
+        this.dist = dist;
+        this.parent = parent;
+        // Step 1: topological positions
+        pos = new int[n];
+        for (int k = 0; k < topo.size(); k++) pos[topo.get(k)] = k;
+        // Step 2: in-edge index (counting sort by target)
+        inOff = new int[n + 1];
+        for (int i = 0; i < off[n]; i++) inOff[to[i] + 1]++;
+        for (int v = 0; v < n; v++) inOff[v + 1] += inOff[v];
+        inFrom = new int[off[n]];
+        inEdge = new int[off[n]];
+        int[] fill = Arrays.copyOf(inOff, n);
+        for (int u = 0; u < n; u++) {
+            for (int i = off[u]; i < off[u + 1]; i++) {
+                int k = fill[to[i]]++;
+                inFrom[k] = u;
+                inEdge[k] = i;
+            }
+        }
+        heap = new int[n];
+        queued = new int[n];
+    }
+
+    /** Runs DAGShortestPath and wraps the result. */
+    public static IncrementalDagPaths shortest(Graph dag, List<Integer> topo, int src) {
+        return new IncrementalDagPaths(dag, topo, DAGShortestPath.run(dag, topo, src));
+    }
+    /** Runs DAGLongestPath and wraps the result. */
+    public static IncrementalDagPaths longest(Graph dag, List<Integer> topo, int src) {
+        return new IncrementalDagPaths(dag, topo, DAGLongestPath.run(dag, topo, src));
+    }
+
+    /**
+     * Sets the weight of edge u -> v (the first one in CSR order) and repairs
+     * the distances downstream. Returns the number of vertices recomputed.
+     *
+     * @throws IllegalArgumentException if there is no edge u -> v
+     */
+    public int updateWeight(int u, int v, int weight) {
+        return updateWeights(new int[]{u}, new int[]{v}, new int[]{weight});
+    }
+    /**
+     * Applies several weight changes (from[k] -> to[k] gets weights[k]) and repairs
+     * the distances in one pass. Returns the number of vertices recomputed.
+     */
+    public int updateWeights(int[] from, int[] target, int[] weights) {
+        if (++stamp == 0) { // stamp overflow: clear once
+            Arrays.fill(queued, 0);
+            stamp = 1;
+        }
+        for (int k = 0; k < from.length; k++) {
+            w[edgeIndex(from[k], target[k])] = weights[k];
+            // edges out of unreachable vertices cannot change anything
+            if (dist[from[k]] != objective.unreachable) push(target[k]);
+        }
+        int touched = 0;
+        while (heapSize > 0) {
+            int y = pop();
+            touched++;
+            if (!recompute(y)) continue; // unchanged: stop propagating here
+            for (int i = off[y]; i < off[y + 1]; i++) push(to[i]);
+        }
+        lastTouched = touched;
+        totalTouched += touched;
+        return touched;
+    }
+
+    /** Current weight of edge u -> v (the first one in CSR order). */
+    public int weight(int u, int v) {
+        return w[edgeIndex(u, v)];
+    }
+    public Objective getObjective() {
+        return objective;
+    }
+    /** Vertices recomputed by the last update. */
+    public int lastTouched() {
+        return lastTouched;
+    }
+    /** Vertices recomputed by all updates so far (compare with updates * n for a full re-run). */
+    public long totalTouched() {
+        return totalTouched;
+    }
+    /** Current shortest path result (shares the updated arrays). */
+    public DAGShortestPath.Result shortestResult() {
+        if (objective != Objective.SHORTEST) throw new IllegalStateException("Tracking longest paths");
+        return new DAGShortestPath.Result(dist, parent, src);
+    }
+    /** Current longest path result; argmax is found with one scan over dist. */
+    public DAGLongestPath.Result longestResult() {
+        if (objective != Objective.LONGEST) throw new IllegalStateException("Tracking shortest paths");
+        int argmax = src;
+        for (int v = 0; v < n; v++) {
+            if (dist[v] > dist[argmax]) argmax = v;
+        }
+        return new DAGLongestPath.Result(dist, parent, src, argmax);
+    }
+
+    // Pulls the best distance of y from its in-edges; returns true if dist[y] changed.
+    private boolean recompute(int y) {
+        if (y == src) return false; // the source always stays at 0
+        long best = objective.unreachable;
+        int bestParent = -1;
+        for (int k = inOff[y]; k < inOff[y + 1]; k++) {
+            int x = inFrom[k];
+            if (dist[x] == objective.unreachable) continue;
+            long cand = dist[x] + w[inEdge[k]];
+            if (bestParent == -1 || objective.improves(cand, best)) {
+                best = cand;
+                bestParent = x;
+            }
+        }
+        boolean changed = best != dist[y];
+        dist[y] = best;
+        parent[y] = bestParent;
+        return changed;
+    }
+    private int edgeIndex(int u, int v) {
+        for (int i = off[u]; i < off[u + 1]; i++) if (to[i] == v) return i;
+        throw new IllegalArgumentException("No edge " + u + " -> " + v);
+    }
+    private void push(int v) {
+        if (queued[v] == stamp) return;
+        queued[v] = stamp;
+        int i = heapSize++;
+        int p = pos[v];
+        while (i > 0 && pos[heap[(i - 1) >>> 1]] > p) {
+            heap[i] = heap[(i - 1) >>> 1];
+            i = (i - 1) >>> 1;
+        }
+        heap[i] = v;
+    }
+    private int pop() {
+        int top = heap[0], last = heap[--heapSize];
+        int i = 0, p = pos[last];
+        while (true) {
+            int c = 2 * i + 1;
+            if (c >= heapSize) break;
+            if (c + 1 < heapSize && pos[heap[c + 1]] < pos[heap[c]]) c++;
+            if (pos[heap[c]] >= p) break;
+            heap[i] = heap[c];
+            i = c;
+        }
+        heap[i] = last;
+        return top;
+    }
+}
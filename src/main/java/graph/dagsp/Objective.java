@@ -0,0 +1,21 @@
+package graph.dagsp;
+/**
+ * Which DP runs over the topological order:
+ * minimal total weight (shortest) or maximal total weight (longest / critical).
+ */
+public enum Objective {
+    SHORTEST(Long.MAX_VALUE),
+    LONGEST(Long.MIN_VALUE);
+
+    /** Distance of unreachable vertices (same sentinels as DAGShortestPath / DAGLongestPath). */
+    public final long unreachable;
+
+    Objective(long unreachable) {
+        this.unreachable = unreachable;
+    }
+
+    /** Returns true if cand is a better distance than current. */
+    public boolean improves(long cand, long current) {
+        return this == SHORTEST ? cand < current : cand > current;
+    }
+}
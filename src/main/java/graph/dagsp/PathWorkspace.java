@@ -0,0 +1,141 @@
+package graph.dagsp;
+import java.util.*;
+/**
+ * Reusable scratch space for repeated DAG path queries.
+ *
+ * The dist/parent arrays are allocated once for n vertices and reused:
+ *  - reset() only increments an epoch; a vertex whose stamp differs from the
+ *    current epoch counts as unreachable, so clearing is O(1) instead of O(n);
+ *  - paths come back as int arrays, copied into a caller buffer, or through a
+ *    {@link Cursor} that walks the path without allocating.
+ *
+ * Filled by DAGShortestPath.run / DAGLongestPath.run with a workspace argument.
+ * One workspace per thread (not thread-safe).
+ */
+public class PathWorkspace {
+    private final int n;
+    private final long[] dist;
+    private final int[] parent;
+    private final int[] stamp;
+    private final int[] buffer; // target -> src chain, reused by path queries
+    private final Cursor cursor = new Cursor();
+    private int epoch;
+    private Objective objective = Objective.SHORTEST;
+    private int src = -1;
+
+    /** Creates a workspace for graphs with up to n vertices. */
+    public PathWorkspace(int n) {
+        this.n = n;
+        dist = new long[n];
+        parent = new int[n];
+        stamp = new int[n];
+        buffer = new int[n];
+    }
+
+    /** Starts a new query: every vertex becomes unreachable except src (distance 0). */
+    public void reset(Objective objective, int src) {
+        if (++epoch == 0) { // stamp overflow: clear once
+            Arrays.fill(stamp, 0);
+            epoch = 1;
+        }
+        this.objective = objective;
+        this.src = src;
+        set(src, 0, -1);
+    }
+    public int capacity() {
+        return n;
+    }
+    public Objective getObjective() {
+        return objective;
+    }
+    public int getSource() {
+        return src;
+    }
+    public boolean reachable(int v) {
+        return stamp[v] == epoch;
+    }
+    /** Distance of v, or objective.unreachable. */
+    public long dist(int v) {
+        return stamp[v] == epoch ? dist[v] : objective.unreachable;
+    }
+    /** Parent of v on the best path, or -1 (source or unreachable). */
+    public int parent(int v) {
+        return stamp[v] == epoch ? parent[v] : -1;
+    }
+    /** Vertex with the best distance under the objective (src if nothing else is reachable). */
+    public int best() {
+        int arg = src;
+        for (int v = 0; v < n; v++) {
+            if (stamp[v] == epoch && objective.improves(dist[v], dist[arg])) arg = v;
+        }
+        return arg;
+    }
+
+    /** Path src -> target as a new int array (empty if unreachable). */
+    public int[] path(int target) {
+        int len = chain(target);
+        int[] path = new int[len];
+        for (int i = 0; i < len; i++) path[i] = buffer[len - 1 - i];
+        return path;
+    }
+    /**
+     * Copies the path src -> target into out and returns its length
+     * (0 if unreachable). Throws if out is too short.
+     */
+    public int pathInto(int target, int[] out) {
+        int len = chain(target);
+        if (out.length < len) throw new IllegalArgumentException("Path has " + len + " vertices, buffer holds " + out.length);
+        for (int i = 0; i < len; i++) out[i] = buffer[len - 1 - i];
+        return len;
+    }
+    /** Allocation-free iterator over src -> target; valid until the next path query. */
+    public Cursor cursor(int target) {
+        cursor.len = chain(target);
+        cursor.pos = cursor.len;
+        return cursor;
+    }
+
+    /** Walks one path in order without allocating; obtained from {@link #cursor(int)}. */
+    public final class Cursor {
+        private int len, pos;
+
+        private Cursor() {}
+        public boolean hasNext() {
+            return pos > 0;
+        }
+        public int next() {
+            if (pos == 0) throw new NoSuchElementException();
+            return buffer[--pos];
+        }
+        /** Number of vertices on the path. */
+        public int length() {
+            return len;
+        }
+    }
+
+    // Package-private hooks for the DP loops.
+    void set(int v, long d, int p) {
+        dist[v] = d;
+        parent[v] = p;
+        stamp[v] = epoch;
+    }
+    long rawDist(int v) {
+        return dist[v];
+    }
+    // Writes target, parent(target), ..., src into buffer; returns the length.
+    private int chain(int target) {
+        if (stamp[target] != epoch) return 0;
+        int len = 0;
+        for (int v = target; v != -1; v = parent[v]) buffer[len++] = v;
+        return len;
+    }
+    /** Path src -> target from a parent array as an int array (empty if target has no path). */
+    static int[] pathArray(int[] parent, int src, int target) {
+        int len = 0;
+        for (int v = target; v != -1; v = parent[v]) len++;
+        if (len == 1 && target != src) return new int[0];
+        int[] path = new int[len];
+        for (int v = target; v != -1; v = parent[v]) path[--len] = v;
+        return path;
+    }
+}
@@ -0,0 +1,217 @@
+package graph.dagsp;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+import graph.scc.Kosaraju;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+/**
+ * Precomputed reachability index on the condensation DAG.
+ *
+ * Two modes, chosen by DAG size:
+ *  - Transitive closure as bitsets (one row of n bits per component), built in
+ *    reverse topological order: row[u] = {u} ∪ row[v] for every edge u -> v.
+ *    Every query is one bit test.
+ *  - Interval labels for large DAGs (GRAIL-style): two traversals give each
+ *    component nested intervals [low, rank]. If v's interval is not inside u's,
+ *    u cannot reach v, and most negative queries stop there. The remaining
+ *    queries run a DFS pruned by topological position and by the labels.
+ *
+ * Queries between original vertices are mapped through Kosaraju.Result.component.
+ * Queries are thread-safe. Label-mode searches borrow a scratch buffer (2 int[n])
+ * from a pool owned by the index and return it afterwards, so buffers are only
+ * allocated up to the number of concurrently running searches, whatever thread
+ * (virtual or pooled) runs the query, and are freed together with the index.
+ */
+public class ReachabilityIndex {
+    /** Largest DAG (in components) that gets a full transitive closure by default: 32 MB of bits. */
+    public static final int DEFAULT_CLOSURE_LIMIT = 1 << 14;
+
+    private final int n;
+    private final int[] pos;       // topological position of each component
+    // closure mode
+    private final long[] closure;  // n rows of `words` longs
+    private final int words;
+    // interval mode
+    private final int[] off, to;
+    private final int[] rank1, low1, rank2, low2;
+    private final Queue<Scratch> scratch;    // free search buffers
+    private final AtomicInteger scratchCount; // buffers allocated so far
+
+    private ReachabilityIndex(CsrGraph dag, int[] order, boolean useClosure) {
+        n = dag.getN();
+        pos = new int[n];
+        for (int k = 0; k < order.length; k++) pos[order[k]] = k;
+        int[] o = dag.getOffsets(), t = dag.getTargets();
+        if (useClosure) {
+            words = (n + 63) >>> 6;
+            closure = new long[n * words];
+            // Step 1: rows in reverse topological order
+            for (int k = order.length - 1; k >= 0; k--) {
+                int u = order[k], base = u * words;
+                closure[base + (u >>> 6)] |= 1L << u;
+                for (int i = o[u]; i < o[u + 1]; i++) {
+                    int vBase = t[i] * words;
+                    for (int j = 0; j < words; j++) closure[base + j] |= closure[vBase + j];
+                }
+            }
+            off = to = rank1 = low1 = rank2 = low2 = null;
+            scratch = null;
+            scratchCount = null;
+        } else {
+            words = 0;
+            closure = null;
+            off = o;
+            to = t;
+            // Step 1: label 1 ranks = reverse topological index
+            rank1 = new int[n];
+            for (int k = 0; k < order.length; k++) rank1[order[k]] = order.length - 1 - k;
+            // Step 2: label 2 ranks = DFS post-order, children visited in reverse
+            rank2 = postOrder(order);
+            low1 = lows(order, rank1);
+            low2 = lows(order, rank2);
+            scratch = new ConcurrentLinkedQueue<>();
+            scratchCount = new AtomicInteger();
+        }
+    }
+
+    /** Builds the index, using the transitive closure up to DEFAULT_CLOSURE_LIMIT components. */
+    public static ReachabilityIndex build(Graph dag, List<Integer> topo) {
+        return build(dag, topo, DEFAULT_CLOSURE_LIMIT);
+    }
+    /**
+     * Builds the index.
+     *
+     * @param dag condensation DAG
+     * @param topo topological order of dag
+     * @param closureLimit largest component count that gets a bitset closure
+     */
+    public static ReachabilityIndex build(Graph dag, List<Integer> topo, int closureLimit) {
+        int[] order = new int[topo.size()];
+        for (int k = 0; k < order.length; k++) order[k] = topo.get(k);
+        long closureWords = (long) dag.getN() * ((dag.getN() + 63) >>> 6);
+        boolean useClosure = dag.getN() <= closureLimit && closureWords <= Integer.MAX_VALUE - 8;
+        return new ReachabilityIndex(dag.toCsr(), order, useClosure);
+    }
+
+    /** Returns true if component a can reach component b (a reaches itself). */
+    public boolean reaches(int a, int b) {
+        if (a == b) return true;
+        if (pos[a] > pos[b]) return false;
+        if (closure != null) return (closure[a * words + (b >>> 6)] & (1L << b)) != 0;
+        if (!contains(a, b)) return false;
+        return search(a, b);
+    }
+    /** Returns true if original vertex u can reach original vertex v. */
+    public boolean reachesVertex(Kosaraju.Result scc, int u, int v) {
+        return reaches(scc.component[u], scc.component[v]);
+    }
+    /** True if the index is a full transitive closure (O(1) queries). */
+    public boolean isTransitiveClosure() {
+        return closure != null;
+    }
+    /**
+     * Approximate heap footprint of the index in bytes (arrays shared with the DAG
+     * and the pooled search buffers included).
+     */
+    public long memoryBytes() {
+        long bytes = 4L * n; // pos
+        if (closure != null) return bytes + 8L * closure.length;
+        bytes += 4L * 4 * n;                   // ranks and lows
+        bytes += 4L * (off.length + to.length); // DAG adjacency used by the search
+        bytes += 8L * n * scratchCount.get();   // pooled search buffers
+        return bytes;
+    }
+
+    // Label test: v's intervals must be nested in u's intervals.
+    private boolean contains(int u, int v) {
+        return low1[u] <= low1[v] && rank1[v] <= rank1[u]
+            && low2[u] <= low2[v] && rank2[v] <= rank2[u];
+    }
+    // DFS from a, only through components that may still reach b.
+    private boolean search(int a, int b) {
+        Scratch s = scratch.poll();
+        if (s == null) {
+            s = new Scratch(n);
+            scratchCount.incrementAndGet();
+        }
+        try {
+            return search(a, b, s);
+        } finally {
+            scratch.offer(s);
+        }
+    }
+    private boolean search(int a, int b, Scratch s) {
+        int[] mark = s.mark, stack = s.stack;
+        int epoch = ++s.epoch;
+        if (epoch == 0) { // stamp overflow: clear once
+            Arrays.fill(mark, 0);
+            epoch = s.epoch = 1;
+        }
+        int sp = 0;
+        stack[sp++] = a;
+        mark[a] = epoch;
+        while (sp > 0) {
+            int u = stack[--sp];
+            for (int i = off[u]; i < off[u + 1]; i++) {
+                int w = to[i];
+                if (w == b) return true;
+                if (mark[w] == epoch || pos[w] > pos[b] || !contains(w, b)) continue;
+                mark[w] = epoch;
+                stack[sp++] = w;
+            }
+        }
+        return false;
+    }
+    /** Search buffers: visit stamps, DFS stack and the current stamp. */
+    private static final class Scratch {
+        final int[] mark, stack;
+        int epoch;
+
+        Scratch(int n) {
+            mark = new int[n];
+            stack = new int[n];
+        }
+    }
+
+    // Post-order numbering of an iterative DFS that visits children last-to-first.
+    private int[] postOrder(int[] order) {
+        int[] rank = new int[n];
+        int[] edge = new int[n];
+        int[] stack = new int[n];
+        boolean[] seen = new boolean[n];
+        int counter = 0;
+        for (int root : order) {
+            if (seen[root]) continue;
+            int sp = 0;
+            stack[sp++] = root;
+            seen[root] = true;
+            edge[root] = off[root + 1];
+            while (sp > 0) {
+                int u = stack[sp - 1];
+                if (edge[u] > off[u]) {
+                    int w = to[--edge[u]];
+                    if (!seen[w]) {
+                        seen[w] = true;
+                        edge[w] = off[w + 1];
+                        stack[sp++] = w;
+                    }
+                } else {
+                    rank[u] = counter++;
+                    sp--;
+                }
+            }
+        }
+        return rank;
+    }
+    // low[u] = min(rank[u], low of every successor), computed in reverse topological order.
+    private int[] lows(int[] order, int[] rank) {
+        int[] low = new int[n];
+        for (int k = order.length - 1; k >= 0; k--) {
+            int u = order[k], best = rank[u];
+            for (int i = off[u]; i < off[u + 1]; i++) best = Math.min(best, low[to[i]]);
+            low[u] = best;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,77 @@
+package graph.external;
+import graph.util.BinaryGraphFormat;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+/**
+ * A graph in BinaryGraphFormat whose edge sections stay in a memory-mapped file.
+ *
+ * Only the offsets (n + 1 ints) are copied to the heap; targets and weights
+ * are read through the mapping, so the heap cost is O(n) whatever the number
+ * of edges. Scanning vertices in id order reads the file sequentially.
+ */
+public class MappedCsr implements Closeable {
+    private final FileChannel channel;
+    private final BinaryGraphFormat.Header header;
+    private final int[] offsets;
+    private final MappedIntArray targets, weights;
+
+    private MappedCsr(FileChannel channel, FileChannel.MapMode mode) throws IOException {
+        this.channel = channel;
+        this.header = BinaryGraphFormat.readHeader(channel);
+        this.targets = new MappedIntArray(channel, header.targetsPos, header.m, mode);
+        this.weights = new MappedIntArray(channel, header.weightsPos, header.m, mode);
+        MappedIntArray off = new MappedIntArray(channel, header.offsetsPos, header.n + 1, mode);
+        this.offsets = new int[header.n + 1];
+        for (int v = 0; v <= header.n; v++) offsets[v] = off.get(v);
+    }
+
+    /** Maps a binary graph file read-only. */
+    public static MappedCsr open(Path file) throws IOException {
+        return new MappedCsr(FileChannel.open(file, StandardOpenOption.READ), FileChannel.MapMode.READ_ONLY);
+    }
+    /**
+     * Creates a binary graph file for n vertices and m edges with the given
+     * offsets, and maps it read-write so the edge sections can be filled in.
+     */
+    static MappedCsr create(Path file, boolean directed, int[] offsets, int source, String weightModel)
+            throws IOException {
+        int n = offsets.length - 1;
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        BinaryGraphFormat.Header h = BinaryGraphFormat.allocate(ch, directed, n, offsets[n], source, weightModel);
+        MappedIntArray off = new MappedIntArray(ch, h.offsetsPos, n + 1, FileChannel.MapMode.READ_WRITE);
+        for (int v = 0; v <= n; v++) off.set(v, offsets[v]);
+        return new MappedCsr(ch, FileChannel.MapMode.READ_WRITE);
+    }
+
+    public BinaryGraphFormat.Header header() {
+        return header;
+    }
+    public int getN() {
+        return header.n;
+    }
+    public int getEdgesCount() {
+        return header.m;
+    }
+    /** Heap copy of the offsets (n + 1 values); edges of v are [offsets[v], offsets[v + 1]). */
+    public int[] getOffsets() {
+        return offsets;
+    }
+    public int target(int edge) {
+        return targets.get(edge);
+    }
+    public int weight(int edge) {
+        return weights.get(edge);
+    }
+    void set(int edge, int target, int weight) {
+        targets.set(edge, target);
+        weights.set(edge, weight);
+    }
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,38 @@
+package graph.external;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+/**
+ * An int section of a file, memory-mapped in 1 GB windows (a single
+ * MappedByteBuffer cannot exceed 2 GB). Values are little-endian, as in
+ * BinaryGraphFormat. Pages are loaded by the OS on demand, so the section
+ * itself never occupies heap.
+ */
+final class MappedIntArray {
+    private static final int WINDOW_SHIFT = 28; // 2^28 ints = 1 GB per window
+    private static final int WINDOW_MASK = (1 << WINDOW_SHIFT) - 1;
+
+    private final IntBuffer[] windows;
+    private final int length;
+
+    MappedIntArray(FileChannel ch, long pos, int length, FileChannel.MapMode mode) throws IOException {
+        this.length = length;
+        int count = (int) (((long) length + WINDOW_MASK) >>> WINDOW_SHIFT);
+        windows = new IntBuffer[count];
+        for (int k = 0; k < count; k++) {
+            long first = (long) k << WINDOW_SHIFT;
+            long ints = Math.min(length - first, 1L << WINDOW_SHIFT);
+            windows[k] = ch.map(mode, pos + 4 * first, 4 * ints).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+    }
+    int get(int i) {
+        return windows[i >>> WINDOW_SHIFT].get(i & WINDOW_MASK);
+    }
+    void set(int i, int value) {
+        windows[i >>> WINDOW_SHIFT].put(i & WINDOW_MASK, value);
+    }
+    int length() {
+        return length;
+    }
+}
@@ -0,0 +1,312 @@
+package graph.external;
+import graph.dagsp.DAGLongestPath;
+import graph.dagsp.DAGShortestPath;
+import graph.scc.Kosaraju;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+/**
+ * Semi-external SCC -> Condensation -> DAG path pipeline for graphs whose
+ * edges do not fit in the heap.
+ *
+ * The graph is read from a BinaryGraphFormat file through a memory map
+ * ({@link MappedCsr}); edge data never enters the heap, only O(n) vertex state:
+ *  1. Transpose: in-degrees by one sequential scan, then a counting scatter
+ *     into a second mapped file in the work directory (no in-heap copy);
+ *     it is closed and deleted as soon as the SCCs are known.
+ *  2. SCC: iterative Kosaraju (explicit stacks, no recursion) over the two
+ *     mapped files. Components come out numbered in topological order.
+ *  3. Condensation: inter-component edges are counted and scattered into a
+ *     mapped file by component, then deduplicated in place with one marker
+ *     per component (first weight kept, like CondensationGraph.build).
+ *  4. DAG paths: since component ids are a topological order, the DP is a
+ *     single sequential pass over the condensation file.
+ *
+ * Before a stage runs, its heap need (every array live at the stage's peak,
+ * including the offsets held by the open mapped files) is checked against the
+ * configured budget and an IllegalStateException is thrown if it would not fit.
+ * Work files get unique names (several pipelines may share a work directory)
+ * and are deleted on close().
+ * Usage: SemiExternalPipeline <graph.bin> [workDir] [heapBudgetMB]
+ */
+public class SemiExternalPipeline implements Closeable {
+    private final MappedCsr graph;
+    private final Path workDir;
+    private final long heapBudget;
+    private MappedCsr dag;
+    private Path dagFile;
+    private int[] component;
+    private int componentCount;
+
+    private SemiExternalPipeline(MappedCsr graph, Path workDir, long heapBudget) {
+        this.graph = graph;
+        this.workDir = workDir;
+        this.heapBudget = heapBudget;
+    }
+
+    /**
+     * Opens a binary graph file.
+     *
+     * @param graphFile graph in BinaryGraphFormat (must be directed)
+     * @param workDir directory for the transposed and condensation files
+     * @param heapBudgetBytes heap the pipeline may use for vertex state
+     */
+    public static SemiExternalPipeline open(Path graphFile, Path workDir, long heapBudgetBytes) throws IOException {
+        MappedCsr g = MappedCsr.open(graphFile);
+        if (!g.header().directed) {
+            g.close();
+            throw new IllegalArgumentException("Semi-external SCC needs a directed graph");
+        }
+        Files.createDirectories(workDir);
+        return new SemiExternalPipeline(g, workDir, heapBudgetBytes);
+    }
+
+    /** Heap bytes needed by the SCC stage for n vertices. */
+    public static long sccHeapBytes(int n) {
+        // peak during the DFS: input offsets, transpose counts + the transposed file's
+        // offsets, finish order, DFS stack, edge cursors (later component), visited
+        return 6L * 4 * (n + 1) + n;
+    }
+    /** Heap bytes needed by the condensation stage for n vertices and c components. */
+    public static long condensationHeapBytes(int n, int c) {
+        // input offsets, component; DAG counts, raw file offsets, kept offsets and
+        // condensation file offsets (c + 1 each); fill cursors / markers
+        return 4L * (n + 1) + 4L * n + 4L * 4 * (c + 1) + 4L * c;
+    }
+    /** Heap bytes needed by one DAG path query with c components. */
+    public static long pathHeapBytes(int n, int c) {
+        // input offsets, component (vertex -> component), condensation offsets, dist and parent
+        return 4L * (n + 1) + 4L * n + 4L * (c + 1) + 12L * c;
+    }
+
+    public MappedCsr graph() {
+        return graph;
+    }
+    /** Component of every vertex; ids follow the topological order of the condensation. */
+    public int[] components() throws IOException {
+        if (component == null) runScc();
+        return component;
+    }
+    public int componentCount() throws IOException {
+        components();
+        return componentCount;
+    }
+    /** Kosaraju-compatible result (builds per-component lists, O(n) boxed values). */
+    public Kosaraju.Result sccResult() throws IOException {
+        int[] comp = components();
+        List<List<Integer>> lists = new ArrayList<>(componentCount);
+        for (int c = 0; c < componentCount; c++) lists.add(new ArrayList<>());
+        for (int v = 0; v < comp.length; v++) lists.get(comp[v]).add(v);
+        return new Kosaraju.Result(comp, lists);
+    }
+    /** Condensation DAG as a mapped binary graph file in the work directory. */
+    public MappedCsr condensation() throws IOException {
+        if (dag == null) buildCondensation();
+        return dag;
+    }
+    /** Shortest paths over the condensation from the component of srcVertex. */
+    public DAGShortestPath.Result shortestPaths(int srcVertex) throws IOException {
+        int src = components()[srcVertex];
+        long[] dist = new long[componentCount];
+        int[] parent = new int[componentCount];
+        relax(src, dist, parent, Long.MAX_VALUE, true);
+        return new DAGShortestPath.Result(dist, parent, src);
+    }
+    /** Longest (critical) paths over the condensation from the component of srcVertex. */
+    public DAGLongestPath.Result longestPaths(int srcVertex) throws IOException {
+        int src = components()[srcVertex];
+        long[] dist = new long[componentCount];
+        int[] parent = new int[componentCount];
+        relax(src, dist, parent, Long.MIN_VALUE, false);
+        int argmax = src;
+        for (int c = 0; c < componentCount; c++) {
+            if (dist[c] > dist[argmax]) argmax = c;
+        }
+        return new DAGLongestPath.Result(dist, parent, src, argmax);
+    }
+
+    // Step 1 + 2: transpose on disk, then iterative Kosaraju over both files.
+    private void runScc() throws IOException {
+        int n = graph.getN();
+        checkBudget("SCC", sccHeapBytes(n));
+        int[] off = graph.getOffsets();
+        // Step 1: transpose by counting scatter (sequential reads, scattered writes)
+        int[] tOff = new int[n + 1];
+        for (int i = 0; i < graph.getEdgesCount(); i++) tOff[graph.target(i) + 1]++;
+        for (int v = 0; v < n; v++) tOff[v + 1] += tOff[v];
+        Path transposedFile = Files.createTempFile(workDir, "transposed-", ".bin");
+        try (MappedCsr transposed = MappedCsr.create(transposedFile, true, tOff,
+                graph.header().source, graph.header().weightModel)) {
+            component = kosaraju(off, tOff, transposed);
+        } finally {
+            Files.deleteIfExists(transposedFile);
+        }
+    }
+    // Step 1 (scatter) + Step 2 on an open transposed file; returns the component array.
+    private int[] kosaraju(int[] off, int[] tOff, MappedCsr transposed) {
+        int n = graph.getN();
+        int[] fill = Arrays.copyOf(tOff, n);
+        for (int u = 0; u < n; u++) {
+            for (int i = off[u]; i < off[u + 1]; i++) {
+                int v = graph.target(i);
+                transposed.set(fill[v]++, u, graph.weight(i));
+            }
+        }
+        fill = null;
+
+        // Step 2a: first DFS computes the finish order (iterative, cursor per vertex)
+        boolean[] visited = new boolean[n];
+        int[] finish = new int[n];
+        int[] stack = new int[n];
+        int[] cursor = new int[n];
+        int finished = 0;
+        for (int s = 0; s < n; s++) {
+            if (visited[s]) continue;
+            int sp = 0;
+            visited[s] = true;
+            cursor[s] = off[s];
+            stack[sp++] = s;
+            while (sp > 0) {
+                int v = stack[sp - 1];
+                if (cursor[v] < off[v + 1]) {
+                    int w = graph.target(cursor[v]++);
+                    if (!visited[w]) {
+                        visited[w] = true;
+                        cursor[w] = off[w];
+                        stack[sp++] = w;
+                    }
+                } else {
+                    finish[finished++] = v;
+                    sp--;
+                }
+            }
+        }
+        cursor = null;
+
+        // Step 2b: second DFS on the transpose in decreasing finish time
+        int[] comp = new int[n];
+        Arrays.fill(comp, -1);
+        int count = 0;
+        for (int k = n - 1; k >= 0; k--) {
+            int s = finish[k];
+            if (comp[s] != -1) continue;
+            int sp = 0;
+            comp[s] = count;
+            stack[sp++] = s;
+            while (sp > 0) {
+                int v = stack[--sp];
+                for (int i = tOff[v]; i < tOff[v + 1]; i++) {
+                    int w = transposed.target(i);
+                    if (comp[w] == -1) {
+                        comp[w] = count;
+                        stack[sp++] = w;
+                    }
+                }
+            }
+            count++;
+        }
+        componentCount = count;
+        return comp;
+    }
+
+    // Step 3: scatter inter-component edges by source component, then dedup in place.
+    private void buildCondensation() throws IOException {
+        int[] comp = components();
+        int n = graph.getN(), c = componentCount;
+        checkBudget("condensation", condensationHeapBytes(n, c));
+        int[] off = graph.getOffsets();
+        int[] dOff = new int[c + 1];
+        for (int u = 0; u < n; u++) {
+            for (int i = off[u]; i < off[u + 1]; i++) {
+                if (comp[graph.target(i)] != comp[u]) dOff[comp[u] + 1]++;
+            }
+        }
+        for (int k = 0; k < c; k++) dOff[k + 1] += dOff[k];
+        Path rawFile = Files.createTempFile(workDir, "condensation-raw-", ".bin");
+        try (MappedCsr raw = MappedCsr.create(rawFile, true, dOff, 0, graph.header().weightModel)) {
+            int[] fill = Arrays.copyOf(dOff, c);
+            for (int u = 0; u < n; u++) {
+                for (int i = off[u]; i < off[u + 1]; i++) {
+                    int cv = comp[graph.target(i)];
+                    if (cv != comp[u]) raw.set(fill[comp[u]]++, cv, graph.weight(i));
+                }
+            }
+            // Dedup: marker[cv] == cu + 1 while cu is processed; compact towards the front
+            int[] marker = fill; // reuse: only the first c entries are needed
+            Arrays.fill(marker, 0);
+            int[] outOff = new int[c + 1];
+            int write = 0;
+            for (int cu = 0; cu < c; cu++) {
+                for (int i = dOff[cu]; i < dOff[cu + 1]; i++) {
+                    int cv = raw.target(i);
+                    if (marker[cv] == cu + 1) continue; // keep the first weight
+                    marker[cv] = cu + 1;
+                    raw.set(write++, cv, raw.weight(i));
+                }
+                outOff[cu + 1] = write;
+            }
+            dagFile = Files.createTempFile(workDir, "condensation-", ".bin");
+            dag = MappedCsr.create(dagFile, true, outOff, 0, graph.header().weightModel);
+            for (int i = 0; i < write; i++) dag.set(i, raw.target(i), raw.weight(i));
+        } finally {
+            Files.deleteIfExists(rawFile);
+        }
+    }
+
+    // Step 4: one sequential DP pass; component ids are already in topological order.
+    private void relax(int src, long[] dist, int[] parent, long unreachable, boolean minimize) throws IOException {
+        MappedCsr d = condensation();
+        checkBudget("DAG path", pathHeapBytes(graph.getN(), componentCount));
+        int[] off = d.getOffsets();
+        Arrays.fill(dist, unreachable);
+        Arrays.fill(parent, -1);
+        dist[src] = 0;
+        for (int u = src; u < componentCount; u++) {
+            if (dist[u] == unreachable) continue;
+            for (int i = off[u]; i < off[u + 1]; i++) {
+                int v = d.target(i);
+                long cand = dist[u] + d.weight(i);
+                if (minimize ? cand < dist[v] : cand > dist[v]) {
+                    dist[v] = cand;
+                    parent[v] = u;
+                }
+            }
+        }
+    }
+    private void checkBudget(String stage, long bytes) {
+        if (bytes > heapBudget)
+            throw new IllegalStateException(stage + " stage needs about " + bytes
+                    + " heap bytes, budget is " + heapBudget);
+    }
+
+    /** Runs every stage on a binary graph file and prints sizes and timings. */
+    public static void main(String[] args) throws IOException {
+        Path file = Path.of(args[0]);
+        Path work = Path.of(args.length > 1 ? args[1] : "target/external-work");
+        long budget = (args.length > 2 ? Long.parseLong(args[2]) : Runtime.getRuntime().maxMemory() >> 20) << 20;
+        try (SemiExternalPipeline p = open(file, work, budget)) {
+            long t0 = System.nanoTime();
+            int count = p.componentCount();
+            long t1 = System.nanoTime();
+            int dagEdges = p.condensation().getEdgesCount();
+            long t2 = System.nanoTime();
+            var sp = p.shortestPaths(p.graph().header().source);
+            long t3 = System.nanoTime();
+            System.out.printf("%s | n=%d m=%d | SCCs: %d (%.1f ms) | DAG edges: %d (%.1f ms) | SP: %.1f ms%n",
+                    file.getFileName(), p.graph().getN(), p.graph().getEdgesCount(),
+                    count, (t1 - t0) / 1e6, dagEdges, (t2 - t1) / 1e6, (t3 - t2) / 1e6);
+            System.out.println("Reachable components: "
+                    + Arrays.stream(sp.dist).filter(d -> d != Long.MAX_VALUE).count());
+        }
+    }
+
+    /** Closes the mapped files and deletes the work files. */
+    @Override
+    public void close() throws IOException {
+        graph.close();
+        if (dag != null) dag.close();
+        if (dagFile != null) Files.deleteIfExists(dagFile);
+    }
+}
@@ -0,0 +1,201 @@
+package graph.model;
+import java.util.Arrays;
+/**
+ * Frozen compressed-sparse-row (CSR) form of a graph.
+ *
+ * - Out-edges of vertex u are stored at positions offsets[u] .. offsets[u + 1] - 1
+ *   of the targets[] and weights[] arrays.
+ * - No Edge objects: three primitive arrays for the whole graph, so traversal is a
+ *   sequential scan instead of pointer chasing through List<List<Edge>>.
+ * - Edges of one vertex keep their insertion order (same order as Graph.getAdj()).
+ * - Immutable after construction; use {@link Builder} or {@link Graph#toCsr()}.
+ */
+public class CsrGraph {
+    private final int n;              // number of vertices
+    private final boolean directed;   // true if graph is directed
+    private final int[] offsets;      // length n + 1
+    private final int[] targets;      // length = number of stored edges
+    private final int[] weights;      // parallel to targets
+    private long contentHash;         // memoized by contentHash()
+    private volatile boolean hashed;  // published after contentHash is written
+
+    /** Wraps already built CSR arrays (no copy is made). */
+    public CsrGraph(int n, boolean directed, int[] offsets, int[] targets, int[] weights) {
+        if (offsets.length != n + 1)
+            throw new IllegalArgumentException("offsets must have length n + 1");
+        if (targets.length != weights.length || offsets[n] != targets.length)
+            throw new IllegalArgumentException("targets/weights do not match offsets");
+        this.n = n;
+        this.directed = directed;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    public int getN() {
+        return n;
+    }
+    public boolean isDirected() {
+        return directed;
+    }
+    /** Returns total number of stored edges (mirrored edges counted twice, as in Graph). */
+    public int getEdgesCount() {
+        return targets.length;
+    }
+    /** Offsets array (length n + 1). Must not be modified. */
+    public int[] getOffsets() {
+        return offsets;
+    }
+    /** Edge target array. Must not be modified. */
+    public int[] getTargets() {
+        return targets;
+    }
+    /** Edge weight array. Must not be modified. */
+    public int[] getWeights() {
+        return weights;
+    }
+    public int outDegree(int u) {
+        return offsets[u + 1] - offsets[u];
+    }
+    /**
+     * 64-bit content hash (direction, vertex count and all three arrays).
+     * Computed by one pass on the first call and memoized, since the arrays never change.
+     */
+    public long contentHash() {
+        if (!hashed) {
+            long h = 0x9E3779B97F4A7C15L ^ n ^ (directed ? 1L << 40 : 0);
+            h = mix(h, offsets);
+            h = mix(h, targets);
+            contentHash = mix(h, weights);
+            hashed = true; // racing threads compute the same value
+        }
+        return contentHash;
+    }
+    private static long mix(long h, int[] values) {
+        for (int v : values) {
+            h ^= v;
+            h *= 0xBF58476D1CE4E5B9L;
+            h ^= h >>> 31;
+        }
+        return h;
+    }
+
+    /** Creates the transposed CSR graph (all edges reversed) with a counting sort. */
+    public CsrGraph transpose() {
+        int m = targets.length;
+        int[] tOffsets = new int[n + 1];
+        int[] tTargets = new int[m];
+        int[] tWeights = new int[m];
+        // Step 1: count incoming edges per vertex
+        for (int i = 0; i < m; i++) tOffsets[targets[i] + 1]++;
+        for (int v = 0; v < n; v++) tOffsets[v + 1] += tOffsets[v];
+        // Step 2: scatter edges, sources in increasing order keep insertion order stable
+        int[] next = Arrays.copyOf(tOffsets, n);
+        for (int u = 0; u < n; u++) {
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int pos = next[targets[i]]++;
+                tTargets[pos] = u;
+                tWeights[pos] = weights[i];
+            }
+        }
+        return new CsrGraph(n, directed, tOffsets, tTargets, tWeights);
+    }
+
+    /**
+     * Builds a CSR graph from an adjacency-list graph.
+     * Edges are copied as stored, so undirected graphs keep both directions.
+     */
+    public static CsrGraph of(Graph g) {
+        int n = g.getN();
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) offsets[u + 1] = offsets[u] + g.getAdj().get(u).size();
+        int[] targets = new int[offsets[n]];
+        int[] weights = new int[offsets[n]];
+        int pos = 0;
+        for (int u = 0; u < n; u++) {
+            for (Edge e : g.getAdj().get(u)) {
+                targets[pos] = e.getV();
+                weights[pos] = e.getW();
+                pos++;
+            }
+        }
+        return new CsrGraph(n, g.isDirected(), offsets, targets, weights);
+    }
+
+    /**
+     * Collects edges into growable primitive buffers and freezes them into CSR form.
+     * Edges of undirected graphs are mirrored when the graph is built, giving
+     * the same per-vertex edge order as {@link Graph#addEdge}.
+     */
+    public static class Builder {
+        private boolean directed;
+        private int[] from = new int[16];
+        private int[] to = new int[16];
+        private int[] w = new int[16];
+        private int size;
+        private int maxVertex = -1;
+
+        public Builder(boolean directed) {
+            this.directed = directed;
+        }
+        /** Changes the directed flag (may be called until {@link #build}). */
+        public Builder setDirected(boolean directed) {
+            this.directed = directed;
+            return this;
+        }
+        /** Adds an edge (u -> v) with given weight. */
+        public Builder addEdge(int u, int v, int weight) {
+            if (u < 0 || v < 0)
+                throw new IllegalArgumentException("Negative vertex id: " + u + " -> " + v);
+            if (size == from.length) {
+                int cap = Math.max(16, size + (size >> 1));
+                from = Arrays.copyOf(from, cap);
+                to = Arrays.copyOf(to, cap);
+                w = Arrays.copyOf(w, cap);
+            }
+            from[size] = u;
+            to[size] = v;
+            w[size] = weight;
+            size++;
+            maxVertex = Math.max(maxVertex, Math.max(u, v));
+            return this;
+        }
+        /** Number of edges added so far (before mirroring). */
+        public int size() {
+            return size;
+        }
+        /** Largest vertex id seen so far, or -1. */
+        public int maxVertex() {
+            return maxVertex;
+        }
+        /**
+         * Freezes collected edges into a CSR graph with n vertices
+         * (stable counting sort by source vertex).
+         */
+        public CsrGraph build(int n) {
+            if (maxVertex >= n)
+                throw new IllegalArgumentException("Vertex " + maxVertex + " out of range for n = " + n);
+            int m = directed ? size : 2 * size;
+            int[] offsets = new int[n + 1];
+            for (int i = 0; i < size; i++) {
+                offsets[from[i] + 1]++;
+                if (!directed) offsets[to[i] + 1]++;
+            }
+            for (int u = 0; u < n; u++) offsets[u + 1] += offsets[u];
+            int[] targets = new int[m];
+            int[] weights = new int[m];
+            int[] next = Arrays.copyOf(offsets, n);
+            for (int i = 0; i < size; i++) {
+                int pos = next[from[i]]++;
+                targets[pos] = to[i];
+                weights[pos] = w[i];
+                if (!directed) {
+                    pos = next[to[i]]++; // add reverse for undirected graphs
+                    targets[pos] = from[i];
+                    weights[pos] = w[i];
+                }
+            }
+            return new CsrGraph(n, directed, offsets, targets, weights);
+        }
+    }
+}
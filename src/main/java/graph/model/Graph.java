@@ -6,12 +6,18 @@ import java.util.*;
  * - Stores adjacency lists for each vertex.
  * - Supports adding edges, counting edges, and transposing the graph.
  * - Used for SCC, Topological Sort, and DAG Path algorithms.
+ * - Can be frozen into a primitive CSR backend ({@link CsrGraph}); the algorithms
+ *   traverse {@link #toCsr()} instead of the Edge lists.
+ * - {@link #unmodifiable()} gives a read-only view that can be shared between threads.
  */
 
 public class Graph {
     private final int n; //number of vertices
     private final boolean directed; // true if graph is directed
-    private final List<List<Edge>> adj; // adjacency list
+    private List<List<Edge>> adj; // adjacency list (null while frozen)
+    private List<List<Edge>> adjView; // unmodifiable view of adj handed out by getAdj()
+    private CsrGraph csr; // cached CSR form (null after modification)
+    private boolean readOnly; // set only on views returned by unmodifiable()
     /** Constructs an empty graph with n vertices. */
     public Graph(int n, boolean directed) {
         this.n = n;
@@ -19,12 +25,34 @@ public class Graph {
         this.adj = new ArrayList<>(n);
         for (int i = 0; i < n; i++) adj.add(new ArrayList<>());
     }
+    /** Constructs a frozen graph backed only by CSR arrays (no Edge objects). */
+    public Graph(CsrGraph csr) {
+        this.n = csr.getN();
+        this.directed = csr.isDirected();
+        this.csr = csr;
+    }
     /** Adds a directed edge (u -> v) with given weight. */
     public void addEdge(int u, int v, int w) {
-        adj.get(u).add(new Edge(u, v, w));
+        checkWritable();
+        List<List<Edge>> lists = edges();
+        lists.get(u).add(new Edge(u, v, w));
         if (!directed) {
-            adj.get(v).add(new Edge(v, u, w)); // add reverse for undirected graphs
+            lists.get(v).add(new Edge(v, u, w)); // add reverse for undirected graphs
         }
+        csr = null;
+    }
+    /**
+     * Removes one edge u -> v (the earliest added one, so parallel edges are
+     * removed in insertion order). For undirected graphs the reverse copy is removed too.
+     * Returns false if there is no such edge.
+     */
+    public boolean removeEdge(int u, int v) {
+        checkWritable();
+        List<List<Edge>> lists = edges();
+        if (!removeFirst(lists.get(u), v)) return false;
+        if (!directed) removeFirst(lists.get(v), u);
+        csr = null;
+        return true;
     }
 
     public int getN() {
@@ -33,11 +61,73 @@ public class Graph {
     public boolean isDirected() {
         return directed;
     }
+    /**
+     * Returns unmodifiable adjacency lists; they are live views, so later
+     * addEdge / removeEdge calls show through. Modify the graph only through
+     * addEdge / removeEdge, which keep the cached CSR form in sync.
+     * On a frozen graph the lists are materialized from the CSR arrays first
+     * (compatibility path, allocates one Edge per edge).
+     */
     public List<List<Edge>> getAdj() {
+        edges();
+        if (adjView == null) {
+            List<List<Edge>> lists = new ArrayList<>(n);
+            for (List<Edge> edges : adj) lists.add(Collections.unmodifiableList(edges));
+            adjView = Collections.unmodifiableList(lists);
+        }
+        return adjView;
+    }
+    // Mutable Edge lists, thawed from the CSR arrays if the graph is frozen.
+    private List<List<Edge>> edges() {
+        if (adj == null) {
+            adj = thaw(csr);
+            adjView = null;
+        }
         return adj;
     }
+    /**
+     * Returns the CSR form of this graph. Built once and cached until the
+     * next modification.
+     */
+    public CsrGraph toCsr() {
+        CsrGraph c = csr;
+        if (c == null) {
+            c = CsrGraph.of(this);
+            csr = c;
+        }
+        return c;
+    }
+    /**
+     * Switches storage to CSR only and drops the Edge lists,
+     * so the graph keeps just three int arrays. Returns this graph.
+     */
+    public Graph freeze() {
+        toCsr();
+        adj = null;
+        adjView = null;
+        return this;
+    }
+    /**
+     * Returns a frozen view sharing this graph's CSR arrays whose addEdge /
+     * removeEdge throw UnsupportedOperationException. Later changes to this graph do not affect the view.
+     */
+    public Graph unmodifiable() {
+        if (readOnly) return this;
+        Graph view = new Graph(toCsr());
+        view.readOnly = true;
+        return view;
+    }
+    /** Returns true for views created by {@link #unmodifiable()}. */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+    /** Returns true if the graph is currently stored only in CSR form. */
+    public boolean isFrozen() {
+        return adj == null;
+    }
     /** Returns total number of edges. */
     public int getEdgesCount() {
+        if (adj == null) return csr.getEdgesCount();
         int count = 0;
         for (List<Edge> edges : adj) count += edges.size();
         return count;
@@ -47,25 +137,45 @@ public class Graph {
      * Used in Kosaraju's algorithm for SCC.
      */
     public Graph transpose() {
-        Graph t = new Graph(n, directed);
-        for (int u = 0; u < n; u++) {
-            for (Edge e : adj.get(u)) {
-                t.addEdge(e.getV(), e.getU(), e.getW());
-            }
-        }
-        return t;
+        return new Graph(toCsr().transpose());
     }
     /** Returns a string representation of adjacency list. */
     @Override
     public String toString() {
+        CsrGraph c = toCsr();
+        int[] off = c.getOffsets(), to = c.getTargets(), w = c.getWeights();
         StringBuilder sb = new StringBuilder();
         for (int u = 0; u < n; u++) {
             sb.append(u).append(": ");
-            for (Edge e : adj.get(u)) {
-                sb.append(e.getV()).append("(").append(e.getW()).append(") ");
+            for (int i = off[u]; i < off[u + 1]; i++) {
+                sb.append(to[i]).append("(").append(w[i]).append(") ");
             }
             sb.append("\n");
         }
         return sb.toString();
     }
+    // Removes the first edge pointing to v.
+    private static boolean removeFirst(List<Edge> edges, int v) {
+        for (int i = 0; i < edges.size(); i++) {
+            if (edges.get(i).getV() == v) {
+                edges.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+    private void checkWritable() {
+        if (readOnly) throw new UnsupportedOperationException("Graph is read-only");
+    }
+    // Rebuilds Edge lists from CSR arrays.
+    private static List<List<Edge>> thaw(CsrGraph c) {
+        int[] off = c.getOffsets(), to = c.getTargets(), w = c.getWeights();
+        List<List<Edge>> lists = new ArrayList<>(c.getN());
+        for (int u = 0; u < c.getN(); u++) {
+            List<Edge> edges = new ArrayList<>(off[u + 1] - off[u]);
+            for (int i = off[u]; i < off[u + 1]; i++) edges.add(new Edge(u, to[i], w[i]));
+            lists.add(edges);
+        }
+        return lists;
+    }
 }
@@ -1,12 +1,28 @@
 package graph.scc;
+import graph.model.CsrGraph;
 import graph.model.Graph;
-import graph.model.Edge;
 import java.util.*;
 /**
  * Builds a condensation graph (DAG) from SCC results.
  * Each strongly connected component becomes a single node.
+ *
+ * Parallel edges between two SCCs are merged with an {@link Aggregation} policy.
+ * Deduplication uses packed long keys (compU << 32 | compV) in a primitive
+ * open-addressing table, so no objects are allocated per edge.
  */
 public class CondensationGraph {
+    /** How the weights of parallel inter-SCC edges are combined. */
+    public enum Aggregation {
+        FIRST, // weight of the first edge in input order (original behaviour)
+        MIN,   // shortest connection, independent of input order
+        MAX,   // longest connection
+        SUM,   // total weight
+        COUNT  // number of parallel edges
+    }
+
+    private static final long EMPTY = -1L; // keys are never negative
+    private static final int MAX_TABLE_BITS = 30; // largest power-of-two int array length
+
     /**
      * Creates a DAG where each node represents one SCC.
      * Adds edges between SCCs if there was any connection in the original graph.
@@ -16,25 +32,77 @@ public class CondensationGraph {
      * @return condensation DAG
      */
     public static Graph build(Graph g, Kosaraju.Result sccResult) {
+        return build(g, sccResult, Aggregation.FIRST);
+    }
+    /**
+     * Same as build(Graph, Result) but combines parallel inter-SCC edges with the
+     * given policy. DAG edges keep the order in which they first appear.
+     *
+     * @throws ArithmeticException if a SUM or COUNT weight does not fit in an int
+     * @throws IllegalArgumentException if there are 2^30 or more distinct SCC pairs
+     */
+    public static Graph build(Graph g, Kosaraju.Result sccResult, Aggregation aggregation) {
         int compCount = sccResult.components.size();
-        Graph dag = new Graph(compCount, true);
+        int[] component = sccResult.component;
+        CsrGraph csr = g.toCsr();
+        int[] off = csr.getOffsets(), to = csr.getTargets(), w = csr.getWeights();
+
+        // Step 1: count inter-SCC edges to size the table
+        int inter = 0;
+        for (int u = 0; u < g.getN(); u++) {
+            int compU = component[u];
+            for (int i = off[u]; i < off[u + 1]; i++) {
+                if (component[to[i]] != compU) inter++;
+            }
+        }
+        // table of at least 2 * inter slots (long arithmetic: inter can exceed 2^30), capped at 2^30
+        int bits = 4;
+        while (bits < MAX_TABLE_BITS && (1L << bits) < 2L * inter) bits++;
+        int mask = (1 << bits) - 1;
+        long[] keys = new long[1 << bits];
+        int[] slot = new int[1 << bits];
+        Arrays.fill(keys, EMPTY);
 
-        Set<String> addEdges = new HashSet<>();
-        // Step 1: Check each edge in the original graph
+        int[] from = new int[inter], dest = new int[inter];
+        long[] value = new long[inter];
+        int k = 0;
+        // Step 2: Check each edge in the original graph
         for (int u = 0; u < g.getN(); u++) {
-            int compU = sccResult.component[u];
-            for (Edge e : g.getAdj().get(u)) {
-                int compV = sccResult.component[e.getV()];
-                // Step 2: Add edges only between different SCCs
-                if (compU != compV) {
-                    String key = compU + "->" + compV;
-                    if (!addEdges.contains(key)) {
-                        dag.addEdge(compU, compV, e.getW());
-                        addEdges.add(key);
+            int compU = component[u];
+            for (int i = off[u]; i < off[u + 1]; i++) {
+                int compV = component[to[i]];
+                // Step 3: Add edges only between different SCCs
+                if (compU == compV) continue;
+                long key = ((long) compU << 32) | compV;
+                int h = (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - bits));
+                while (keys[h] != EMPTY && keys[h] != key) h = (h + 1) & mask;
+                if (keys[h] == EMPTY) {
+                    // keep one slot empty, otherwise the probe above could not terminate
+                    if (k == mask)
+                        throw new IllegalArgumentException("Condensation has too many distinct SCC pairs (table limit 2^"
+                                + MAX_TABLE_BITS + ")");
+                    keys[h] = key;
+                    slot[h] = k;
+                    from[k] = compU;
+                    dest[k] = compV;
+                    value[k] = aggregation == Aggregation.COUNT ? 1 : w[i];
+                    k++;
+                } else {
+                    int s = slot[h];
+                    switch (aggregation) {
+                        case MIN -> value[s] = Math.min(value[s], w[i]);
+                        case MAX -> value[s] = Math.max(value[s], w[i]);
+                        case SUM -> value[s] += w[i];
+                        case COUNT -> value[s]++;
+                        default -> { } // FIRST keeps the first weight
                     }
                 }
             }
         }
-        return dag;
+
+        // Step 4: freeze the DAG into CSR form
+        CsrGraph.Builder dag = new CsrGraph.Builder(true);
+        for (int e = 0; e < k; e++) dag.addEdge(from[e], dest[e], Math.toIntExact(value[e]));
+        return new Graph(dag.build(compCount));
     }
 }
@@ -0,0 +1,141 @@
+package graph.scc;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+/**
+ * Parallel connected components of an undirected graph (lock-free union-find).
+ *
+ * In an undirected graph the SCCs are the connected components, so no DFS and
+ * no transpose are needed: each edge is one union.
+ * Algorithm:
+ *  1. parent[v] = v for every vertex.
+ *  2. Edge ranges are processed in parallel on a ForkJoinPool. For an edge
+ *     (u, v), u < v (every undirected edge is stored twice, one copy suffices):
+ *       find the roots with path halving (parent[x] is CAS'ed to its grandparent);
+ *       link the larger root under the smaller one with one CAS on parent[root],
+ *       retrying from find if another thread linked that root first.
+ *     Roots only ever point to smaller ids, so no cycle can form and the final
+ *     root of a component is its smallest vertex.
+ *  3. Every vertex is resolved to its root in parallel; components are numbered
+ *     by their smallest vertex.
+ * Output has the {@link Kosaraju.Result} shape (vertices in increasing order
+ * inside each component). The condensation of an undirected graph has no edges,
+ * so any component order is a topological order.
+ * Time complexity: O((V + E) α(V)) work, spread over the pool
+ */
+public class ConnectedComponents {
+    private static final int EDGE_GRAIN = 1 << 14;   // edges per union leaf task
+    private static final int VERTEX_GRAIN = 1 << 14; // vertices per resolve leaf task
+
+    // Runs on the common pool
+    public static Kosaraju.Result run(Graph g) {
+        return run(g.toCsr(), ForkJoinPool.commonPool());
+    }
+    /**
+     * Computes connected components on the given pool.
+     *
+     * @throws IllegalArgumentException if g is directed
+     */
+    public static Kosaraju.Result run(CsrGraph g, ForkJoinPool pool) {
+        if (g.isDirected()) throw new IllegalArgumentException("Connected components need an undirected graph");
+        int n = g.getN();
+        AtomicIntegerArray parent = new AtomicIntegerArray(n);
+        for (int v = 0; v < n; v++) parent.set(v, v);
+        int[] off = g.getOffsets(), to = g.getTargets();
+
+        // Step 2: concurrent unions over the edge set
+        if (n > 0) pool.invoke(new UnionTask(parent, off, to, 0, n));
+        // Step 3: resolve roots
+        int[] root = new int[n];
+        if (n > 0) pool.invoke(new ResolveTask(parent, root, 0, n));
+
+        int[] component = new int[n];
+        int count = 0;
+        for (int v = 0; v < n; v++) component[v] = root[v] == v ? count++ : component[root[v]];
+        List<List<Integer>> components = new ArrayList<>(count);
+        for (int c = 0; c < count; c++) components.add(new ArrayList<>());
+        for (int v = 0; v < n; v++) components.get(component[v]).add(v);
+        return new Kosaraju.Result(component, components);
+    }
+
+    // Root of v; halves the path on the way (a lost CAS only skips one shortcut).
+    static int find(AtomicIntegerArray parent, int v) {
+        while (true) {
+            int p = parent.get(v);
+            if (p == v) return v;
+            int gp = parent.get(p);
+            if (gp == p) return p;
+            parent.compareAndSet(v, p, gp);
+            v = gp;
+        }
+    }
+    // Links the components of u and v; the larger root goes under the smaller.
+    static void union(AtomicIntegerArray parent, int u, int v) {
+        while (true) {
+            int ru = find(parent, u), rv = find(parent, v);
+            if (ru == rv) return;
+            if (ru < rv) {
+                int t = ru;
+                ru = rv;
+                rv = t;
+            }
+            if (parent.compareAndSet(ru, ru, rv)) return;
+        }
+    }
+
+    /** Unions of the edges of vertices [lo, hi), split by edge count. */
+    private static class UnionTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final AtomicIntegerArray parent;
+        private final int[] off, to;
+        private final int lo, hi;
+
+        UnionTask(AtomicIntegerArray parent, int[] off, int[] to, int lo, int hi) {
+            this.parent = parent;
+            this.off = off;
+            this.to = to;
+            this.lo = lo;
+            this.hi = hi;
+        }
+        @Override
+        protected void compute() {
+            if (off[hi] - off[lo] > EDGE_GRAIN && hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new UnionTask(parent, off, to, lo, mid), new UnionTask(parent, off, to, mid, hi));
+                return;
+            }
+            for (int u = lo; u < hi; u++) {
+                for (int i = off[u]; i < off[u + 1]; i++) {
+                    if (to[i] > u) union(parent, u, to[i]);
+                }
+            }
+        }
+    }
+
+    /** Writes the final root of every vertex in [lo, hi). */
+    private static class ResolveTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final AtomicIntegerArray parent;
+        private final int[] root;
+        private final int lo, hi;
+
+        ResolveTask(AtomicIntegerArray parent, int[] root, int lo, int hi) {
+            this.parent = parent;
+            this.root = root;
+            this.lo = lo;
+            this.hi = hi;
+        }
+        @Override
+        protected void compute() {
+            if (hi - lo > VERTEX_GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new ResolveTask(parent, root, lo, mid), new ResolveTask(parent, root, mid, hi));
+                return;
+            }
+            for (int v = lo; v < hi; v++) root[v] = find(parent, v);
+        }
+    }
+}
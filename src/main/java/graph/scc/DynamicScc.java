@@ -0,0 +1,472 @@
+package graph.scc;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+import java.util.*;
+/**
+ * Incremental SCC and condensation maintenance for a directed graph that changes
+ * by single-edge insertions and deletions.
+ *
+ * Instead of re-running Kosaraju, CondensationGraph and TopologicalSort after every
+ * change, the structure keeps:
+ *  - the component of every vertex and the members of every component;
+ *  - the condensation DAG as successor/predecessor links per component
+ *    (number of parallel original edges and their minimum weight);
+ *  - a topological order of the components as sparse long labels.
+ *
+ * Insertion u -> v (Pearce-Kelly):
+ *  1. Same component, or label[comp u] < label[comp v]: the order is still valid.
+ *  2. Otherwise search forward from comp v (labels up to comp u) and backward
+ *     from comp u (labels down to comp v). Only this region is visited.
+ *  3. If the forward search reached comp u, the components found by both
+ *     searches lie on a new cycle and are merged into one.
+ *  4. The region's labels are reassigned: backward set, merged component, forward set.
+ *
+ * Deletion u -> v:
+ *  1. Between components: only the link count is decreased.
+ *  2. Inside a component: Tarjan runs on that component's members only. If it
+ *     splits, the pieces get labels in the gap after the old label (all labels
+ *     are respaced in the rare case the gap is too small).
+ *
+ * Update cost depends on the components and member edges touched, not on the
+ * size of the graph. The wrapped Graph is kept in sync with every update.
+ */
+public class DynamicScc {
+    private static final long GAP = 1L << 20; // initial distance between labels
+
+    // One condensation edge: parallel original edges and their minimum weight.
+    private static final class Link {
+        int count;
+        int minWeight;
+    }
+
+    private final Graph graph;
+    private final int n;
+    // mutable adjacency in both directions (insertion order, like Graph)
+    private final int[][] outTo, outW, inFrom, inW;
+    private final int[] outDeg, inDeg;
+    // components, indexed by component id
+    private final int[] comp;
+    private final int[][] members;
+    private final int[] size;
+    private final long[] label;
+    private final List<Map<Integer, Link>> succLinks, predLinks;
+    private final TreeMap<Long, Integer> order = new TreeMap<>(); // label -> component
+    private final ArrayDeque<Integer> freeIds = new ArrayDeque<>();
+    // search marks, compared against epoch
+    private final int[] seenF, seenB, local;
+    private int epoch;
+    private int lastAffected;
+
+    /**
+     * Computes the initial SCCs of g and starts tracking it.
+     *
+     * @throws IllegalArgumentException if g is undirected
+     */
+    public DynamicScc(Graph g) {
+        if (!g.isDirected()) throw new IllegalArgumentException("DynamicScc needs a directed graph");
+        graph = g;
+        n = g.getN();
+        CsrGraph csr = g.toCsr();
+        int[] off = csr.getOffsets(), to = csr.getTargets(), w = csr.getWeights();
+
+        // Step 1: copy the adjacency in both directions
+        outTo = new int[n][];
+        outW = new int[n][];
+        inFrom = new int[n][];
+        inW = new int[n][];
+        outDeg = new int[n];
+        inDeg = new int[n];
+        for (int i = 0; i < off[n]; i++) inDeg[to[i]]++;
+        for (int v = 0; v < n; v++) {
+            outTo[v] = Arrays.copyOfRange(to, off[v], off[v + 1]);
+            outW[v] = Arrays.copyOfRange(w, off[v], off[v + 1]);
+            outDeg[v] = off[v + 1] - off[v];
+            inFrom[v] = new int[inDeg[v]];
+            inW[v] = new int[inDeg[v]];
+            inDeg[v] = 0;
+        }
+        for (int u = 0; u < n; u++) {
+            for (int i = off[u]; i < off[u + 1]; i++) {
+                int v = to[i];
+                inFrom[v][inDeg[v]] = u;
+                inW[v][inDeg[v]++] = w[i];
+            }
+        }
+
+        // Step 2: initial SCCs, already numbered in topological order
+        Kosaraju.Result scc = Tarjan.run(csr);
+        comp = scc.component;
+        members = new int[n][];
+        size = new int[n];
+        label = new long[n];
+        succLinks = new ArrayList<>(Collections.nCopies(n, null));
+        predLinks = new ArrayList<>(Collections.nCopies(n, null));
+        int count = scc.components.size();
+        for (int c = 0; c < count; c++) {
+            List<Integer> list = scc.components.get(c);
+            members[c] = new int[list.size()];
+            for (int i = 0; i < list.size(); i++) members[c][i] = list.get(i);
+            size[c] = list.size();
+            setLabel(c, (c + 1) * GAP);
+        }
+        for (int c = count; c < n; c++) freeIds.add(c);
+
+        // Step 3: condensation links
+        for (int u = 0; u < n; u++) {
+            for (int i = off[u]; i < off[u + 1]; i++) {
+                if (comp[u] != comp[to[i]]) link(comp[u], comp[to[i]], w[i]);
+            }
+        }
+        seenF = new int[n];
+        seenB = new int[n];
+        local = new int[n];
+    }
+
+    /** Adds edge u -> v, merging components if it closes a cycle. */
+    public void addEdge(int u, int v, int w) {
+        graph.addEdge(u, v, w);
+        outDeg[u] = append(outTo, outW, u, outDeg[u], v, w);
+        inDeg[v] = append(inFrom, inW, v, inDeg[v], u, w);
+        lastAffected = 0;
+        int cu = comp[u], cv = comp[v];
+        if (cu == cv) return;
+        link(cu, cv, w);
+        // Step 1: order still valid
+        if (label[cu] < label[cv]) return;
+
+        // Step 2: affected region
+        nextEpoch();
+        List<Integer> forward = search(cv, label[cu], true);
+        List<Integer> backward = search(cu, label[cv], false);
+        lastAffected = forward.size() + backward.size();
+
+        long[] pool = new long[forward.size() + backward.size()];
+        int k = 0;
+        for (int c : forward) pool[k++] = label[c];
+        for (int c : backward) if (seenF[c] != epoch) pool[k++] = label[c];
+        pool = Arrays.copyOf(pool, k);
+        Arrays.sort(pool);
+        for (long l : pool) order.remove(l);
+        Comparator<Integer> byLabel = Comparator.comparingLong(c -> label[c]);
+        List<Integer> before = new ArrayList<>(), after = new ArrayList<>();
+        for (int c : backward) if (seenF[c] != epoch) before.add(c);
+        for (int c : forward) if (seenB[c] != epoch) after.add(c);
+        before.sort(byLabel);
+        after.sort(byLabel);
+
+        // Step 3: components reachable from v that reach u form a new cycle
+        int merged = seenF[cu] == epoch ? merge(forward) : -1;
+
+        // Step 4: backward set first, then the merged component, then the forward set
+        int i = 0;
+        for (int c : before) setLabel(c, pool[i++]);
+        if (merged != -1) setLabel(merged, pool[i]);
+        i = k - after.size();
+        for (int c : after) setLabel(c, pool[i++]);
+    }
+
+    /**
+     * Removes one edge u -> v (the earliest added one), splitting its component
+     * if the edge was needed to keep it strongly connected.
+     * Returns false if there is no such edge.
+     */
+    public boolean removeEdge(int u, int v) {
+        int i = indexOf(outTo[u], outDeg[u], v, -1, null);
+        if (i < 0) return false;
+        int w = outW[u][i];
+        outDeg[u] = removeAt(outTo[u], outW[u], outDeg[u], i);
+        inDeg[v] = removeAt(inFrom[v], inW[v], inDeg[v], indexOf(inFrom[v], inDeg[v], u, w, inW[v]));
+        graph.removeEdge(u, v);
+        lastAffected = 0;
+        int cu = comp[u], cv = comp[v];
+        if (cu != cv) unlink(cu, cv, w);
+        else if (u != v) split(cu);
+        return true;
+    }
+
+    /** Component id of v. Ids stay stable until the component merges or splits. */
+    public int componentOf(int v) {
+        return comp[v];
+    }
+    public boolean sameComponent(int u, int v) {
+        return comp[u] == comp[v];
+    }
+    public int componentCount() {
+        return n - freeIds.size();
+    }
+    /** Components visited or re-examined by the last update (0 = nothing to repair). */
+    public int lastAffected() {
+        return lastAffected;
+    }
+    public Graph graph() {
+        return graph;
+    }
+
+    /** Current SCCs, compacted so that component ids follow the topological order (as in Kosaraju). */
+    public Kosaraju.Result result() {
+        int[] compact = compactIds();
+        int[] component = new int[n];
+        for (int v = 0; v < n; v++) component[v] = compact[comp[v]];
+        List<List<Integer>> components = new ArrayList<>(order.size());
+        for (int c : order.values()) {
+            List<Integer> list = new ArrayList<>(size[c]);
+            for (int i = 0; i < size[c]; i++) list.add(members[c][i]);
+            components.add(list);
+        }
+        return new Kosaraju.Result(component, components);
+    }
+    /**
+     * Current condensation DAG with the ids of {@link #result()}, so 0, 1, 2, ...
+     * is already a topological order. Parallel edges keep their minimum weight
+     * (Aggregation.MIN), since the first edge is not well defined under deletions.
+     */
+    public Graph condensation() {
+        int[] compact = compactIds();
+        CsrGraph.Builder dag = new CsrGraph.Builder(true);
+        for (int c : order.values()) {
+            Map<Integer, Link> out = succLinks.get(c);
+            if (out == null) continue;
+            for (Map.Entry<Integer, Link> e : out.entrySet())
+                dag.addEdge(compact[c], compact[e.getKey()], e.getValue().minWeight);
+        }
+        return new Graph(dag.build(order.size()));
+    }
+
+    // DFS over condensation links that stays within the label bound.
+    private List<Integer> search(int start, long bound, boolean forward) {
+        int[] seen = forward ? seenF : seenB;
+        List<Integer> found = new ArrayList<>();
+        ArrayDeque<Integer> stack = new ArrayDeque<>();
+        seen[start] = epoch;
+        stack.push(start);
+        while (!stack.isEmpty()) {
+            int c = stack.pop();
+            found.add(c);
+            Map<Integer, Link> next = (forward ? succLinks : predLinks).get(c);
+            if (next == null) continue;
+            for (int d : next.keySet()) {
+                if (seen[d] == epoch || (forward ? label[d] > bound : label[d] < bound)) continue;
+                seen[d] = epoch;
+                stack.push(d);
+            }
+        }
+        return found;
+    }
+    // Merges every forward component that was also found backward; returns the survivor.
+    private int merge(List<Integer> forward) {
+        List<Integer> cycle = new ArrayList<>();
+        int keep = -1, total = 0;
+        for (int c : forward) {
+            if (seenB[c] != epoch) continue;
+            cycle.add(c);
+            total += size[c];
+            if (keep == -1 || size[c] > size[keep]) keep = c;
+        }
+        for (int c : cycle) detach(c);
+        members[keep] = Arrays.copyOf(members[keep], total);
+        for (int c : cycle) {
+            if (c == keep) continue;
+            for (int i = 0; i < size[c]; i++) {
+                int x = members[c][i];
+                comp[x] = keep;
+                members[keep][size[keep]++] = x;
+            }
+            members[c] = null;
+            size[c] = 0;
+            freeIds.push(c);
+        }
+        attach(keep, false);
+        return keep;
+    }
+    // Re-runs Tarjan on the members of c and splits it into its new SCCs.
+    private void split(int c) {
+        int k = size[c];
+        int[] mem = members[c];
+        lastAffected = k;
+        for (int i = 0; i < k; i++) local[mem[i]] = i;
+        int[] index = new int[k], low = new int[k], edgePos = new int[k];
+        int[] callStack = new int[k], sccStack = new int[k], piece = new int[k];
+        boolean[] onStack = new boolean[k];
+        Arrays.fill(index, -1);
+        int next = 0, count = 0;
+        for (int s = 0; s < k; s++) {
+            if (index[s] != -1) continue;
+            int cp = 0, sp = 0;
+            index[s] = low[s] = next++;
+            callStack[cp++] = s;
+            sccStack[sp++] = s;
+            onStack[s] = true;
+            while (cp > 0) {
+                int v = callStack[cp - 1], x = mem[v];
+                if (edgePos[v] < outDeg[x]) {
+                    int y = outTo[x][edgePos[v]++];
+                    if (comp[y] != c) continue; // edge leaves the component
+                    int w = local[y];
+                    if (index[w] == -1) {
+                        index[w] = low[w] = next++;
+                        callStack[cp++] = w;
+                        sccStack[sp++] = w;
+                        onStack[w] = true;
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+                cp--;
+                if (low[v] == index[v]) {
+                    int t;
+                    do {
+                        t = sccStack[--sp];
+                        onStack[t] = false;
+                        piece[t] = count;
+                    } while (t != v);
+                    count++;
+                }
+                if (cp > 0) low[callStack[cp - 1]] = Math.min(low[callStack[cp - 1]], low[v]);
+            }
+        }
+        if (count == 1) return;
+
+        // Tarjan finds pieces in reverse topological order: piece count-1 comes first
+        Long nextLabel = order.higherKey(label[c]);
+        if (nextLabel != null && nextLabel - label[c] < count) {
+            respace(Math.max(GAP, count));
+            nextLabel = order.higherKey(label[c]);
+        }
+        long base = label[c];
+        long step = nextLabel == null ? GAP : (nextLabel - base) / count;
+        detach(c);
+        order.remove(base);
+        int[] ids = new int[count];
+        int[] sizes = new int[count];
+        for (int i = 0; i < k; i++) sizes[count - 1 - piece[i]]++;
+        nextEpoch();
+        for (int t = 0; t < count; t++) {
+            ids[t] = t == 0 ? c : freeIds.pop();
+            members[ids[t]] = new int[sizes[t]];
+            size[ids[t]] = 0;
+            setLabel(ids[t], base + t * step);
+            seenF[ids[t]] = epoch;
+        }
+        for (int i = 0; i < k; i++) {
+            int id = ids[count - 1 - piece[i]];
+            comp[mem[i]] = id;
+            members[id][size[id]++] = mem[i];
+        }
+        for (int t = 0; t < count; t++) attach(ids[t], true);
+    }
+    // Spreads all labels `spacing` apart again, keeping their order.
+    private void respace(long spacing) {
+        List<Integer> comps = new ArrayList<>(order.values());
+        order.clear();
+        for (int i = 0; i < comps.size(); i++) setLabel(comps.get(i), (i + 1) * spacing);
+    }
+    // Removes every condensation link of c.
+    private void detach(int c) {
+        Map<Integer, Link> out = succLinks.get(c), in = predLinks.get(c);
+        if (out != null) {
+            for (int d : out.keySet()) predLinks.get(d).remove(c);
+            out.clear();
+        }
+        if (in != null) {
+            for (int d : in.keySet()) succLinks.get(d).remove(c);
+            in.clear();
+        }
+    }
+    // Rebuilds the links of c from its members' edges. With skipMarked, incoming
+    // edges from components marked in seenF (sibling pieces) are skipped, since
+    // their outgoing scan already added them.
+    private void attach(int c, boolean skipMarked) {
+        for (int i = 0; i < size[c]; i++) {
+            int x = members[c][i];
+            for (int e = 0; e < outDeg[x]; e++) {
+                int d = comp[outTo[x][e]];
+                if (d != c) link(c, d, outW[x][e]);
+            }
+            for (int e = 0; e < inDeg[x]; e++) {
+                int d = comp[inFrom[x][e]];
+                if (d != c && !(skipMarked && seenF[d] == epoch)) link(d, c, inW[x][e]);
+            }
+        }
+    }
+    private void link(int a, int b, int w) {
+        Link l = succ(a).get(b);
+        if (l == null) {
+            l = new Link();
+            l.minWeight = w;
+            succ(a).put(b, l);
+            pred(b).put(a, l);
+        } else {
+            l.minWeight = Math.min(l.minWeight, w);
+        }
+        l.count++;
+    }
+    private void unlink(int a, int b, int w) {
+        Link l = succLinks.get(a).get(b);
+        if (--l.count == 0) {
+            succLinks.get(a).remove(b);
+            predLinks.get(b).remove(a);
+        } else if (w == l.minWeight) {
+            // the minimum may be gone: rescan a's edges into b
+            int best = Integer.MAX_VALUE;
+            for (int i = 0; i < size[a]; i++) {
+                int x = members[a][i];
+                for (int e = 0; e < outDeg[x]; e++) {
+                    if (comp[outTo[x][e]] == b) best = Math.min(best, outW[x][e]);
+                }
+            }
+            l.minWeight = best;
+        }
+    }
+    private Map<Integer, Link> succ(int c) {
+        Map<Integer, Link> m = succLinks.get(c);
+        if (m == null) succLinks.set(c, m = new HashMap<>());
+        return m;
+    }
+    private Map<Integer, Link> pred(int c) {
+        Map<Integer, Link> m = predLinks.get(c);
+        if (m == null) predLinks.set(c, m = new HashMap<>());
+        return m;
+    }
+    private void setLabel(int c, long l) {
+        label[c] = l;
+        order.put(l, c);
+    }
+    private void nextEpoch() {
+        if (++epoch == 0) { // stamp overflow: clear once
+            Arrays.fill(seenF, 0);
+            Arrays.fill(seenB, 0);
+            epoch = 1;
+        }
+    }
+    private int[] compactIds() {
+        int[] compact = new int[n];
+        int next = 0;
+        for (int c : order.values()) compact[c] = next++;
+        return compact;
+    }
+    // Appends (target, weight) to row v, growing it if needed; returns the new degree.
+    private static int append(int[][] targets, int[][] weights, int v, int deg, int target, int w) {
+        if (deg == targets[v].length) {
+            int cap = Math.max(4, deg * 2);
+            targets[v] = Arrays.copyOf(targets[v], cap);
+            weights[v] = Arrays.copyOf(weights[v], cap);
+        }
+        targets[v][deg] = target;
+        weights[v][deg] = w;
+        return deg + 1;
+    }
+    // First position of target (with weight w if weights != null), or -1.
+    private static int indexOf(int[] targets, int deg, int target, int w, int[] weights) {
+        for (int i = 0; i < deg; i++) {
+            if (targets[i] == target && (weights == null || weights[i] == w)) return i;
+        }
+        return -1;
+    }
+    // Removes position i keeping the order of the rest; returns the new degree.
+    private static int removeAt(int[] targets, int[] weights, int deg, int i) {
+        System.arraycopy(targets, i + 1, targets, i, deg - i - 1);
+        System.arraycopy(weights, i + 1, weights, i, deg - i - 1);
+        return deg - 1;
+    }
+}
@@ -1,6 +1,8 @@
 package graph.scc;
-import graph.model.Edge;
+import graph.model.CsrGraph;
 import graph.model.Graph;
+import graph.util.Metrics;
+import graph.util.Metrics.Counter;
 import java.util.*;
 /**
  * Implements Kosaraju's algorithm to find Strongly Connected Components (SCC)
@@ -24,22 +26,31 @@ public class Kosaraju {
     }
     // Main method to run this algorithm
     public static Result run(Graph g) {
+        return run(g.toCsr(), Metrics.NOOP);
+    }
+    /** Runs Kosaraju and reports DFS calls, scanned edges and stack operations. */
+    public static Result run(Graph g, Metrics metrics) {
+        return run(g.toCsr(), metrics);
+    }
+    /** Runs Kosaraju directly on the CSR arrays. */
+    public static Result run(CsrGraph g, Metrics metrics) {
         int n = g.getN();
         boolean[] visited = new boolean[n];
         Deque<Integer> stack = new ArrayDeque<>();
+        int[] path = new int[n], cursor = new int[n]; // explicit DFS stack, shared by all searches
 
         // Step 1: Run first DFS to compute finish order
         // After exploring each vertex completely, we push it into the stack.
         // The vertex that finishes last will be on top.
         for (int v = 0; v < n; v++) {
             if (!visited[v]) {
-                dfs1(g, v, visited, stack);
+                dfs1(g, v, visited, stack, path, cursor, metrics);
             }
         }
 
         // Step 2: Transpose the graph
         //we reverse all edges to prepare for the second DFS
-        Graph gt = g.transpose();
+        CsrGraph gt = g.transpose();
 
         // Step 3: Second DFS on transposed graph
         Arrays.fill(visited, false);
@@ -49,9 +60,10 @@ public class Kosaraju {
 
         while (!stack.isEmpty()) {
             int v = stack.pop();
+            metrics.inc(Counter.STACK_POPS);
             if (!visited[v]) {
                 List<Integer> current = new ArrayList<>();
-                dfs2(gt, v, visited, current);
+                dfs2(gt, v, visited, current, path, cursor, metrics);
                 // assign component index
                 int index = components.size();
                 for (int u : current) {
@@ -62,26 +74,54 @@ public class Kosaraju {
         }
         return new Result(component, components);
     }
-    /** DFS used in Step 1 (fill stack by finish time). */
-    private static void dfs1(Graph g, int v, boolean[] visited, Deque<Integer> stack) {
-        visited[v] = true;
-        for (Edge e : g.getAdj().get(v)) {
-            if (!visited[e.getV()]) {
-                dfs1(g, e.getV(), visited, stack);
+    /**
+     * DFS used in Step 1 (fill stack by finish time). Iterative with an
+     * explicit stack and one edge cursor per vertex, so deep graphs cannot
+     * overflow the thread stack; visit and finish order match the recursive DFS.
+     */
+    private static void dfs1(CsrGraph g, int s, boolean[] visited, Deque<Integer> stack,
+                             int[] path, int[] cursor, Metrics metrics) {
+        int[] off = g.getOffsets(), to = g.getTargets();
+        int sp = 0;
+        path[sp++] = enter(s, off, visited, cursor, metrics);
+        while (sp > 0) {
+            int v = path[sp - 1];
+            if (cursor[v] < off[v + 1]) {
+                int w = to[cursor[v]++];
+                if (!visited[w]) path[sp++] = enter(w, off, visited, cursor, metrics);
+            } else {
+                sp--;
+                stack.push(v); // finished exploring v
+                metrics.inc(Counter.STACK_PUSHES);
             }
         }
-        stack.push(v); // finished exploring v
     }
-    // DFS used in Step 3 (collects vertices of one component)
-    private static void dfs2(Graph g, int v, boolean[] visited, List<Integer> current) {
-        visited[v] = true;
-        current.add(v);
-        for (Edge e : g.getAdj().get(v)) {
-            if (!visited[e.getV()]) {
-                dfs2(g, e.getV(), visited, current);
+    // DFS used in Step 3 (collects vertices of one component, in preorder)
+    private static void dfs2(CsrGraph g, int s, boolean[] visited, List<Integer> current,
+                             int[] path, int[] cursor, Metrics metrics) {
+        int[] off = g.getOffsets(), to = g.getTargets();
+        int sp = 0;
+        current.add(s);
+        path[sp++] = enter(s, off, visited, cursor, metrics);
+        while (sp > 0) {
+            int v = path[sp - 1];
+            if (cursor[v] < off[v + 1]) {
+                int w = to[cursor[v]++];
+                if (!visited[w]) {
+                    current.add(w);
+                    path[sp++] = enter(w, off, visited, cursor, metrics);
+                }
+            } else {
+                sp--;
             }
         }
     }
-
-
+    // Marks v visited and counts it as one DFS call (what a recursive call would do).
+    private static int enter(int v, int[] off, boolean[] visited, int[] cursor, Metrics metrics) {
+        visited[v] = true;
+        cursor[v] = off[v];
+        metrics.inc(Counter.DFS_CALLS);
+        metrics.add(Counter.EDGES_PROCESSED, off[v + 1] - off[v]);
+        return v;
+    }
 }
@@ -0,0 +1,259 @@
+package graph.scc;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+/**
+ * Parallel SCC decomposition (forward-backward with trimming) on a ForkJoinPool.
+ *
+ * Algorithm:
+ *  1. Trim: vertices with no in- or out-edges inside their partition are
+ *     singleton SCCs and are removed (repeated until nothing changes).
+ *  2. Pick a pivot, mark its forward set F and backward set B.
+ *     F ∩ B is the SCC of the pivot.
+ *  3. F \ B, B \ F and the rest cannot share an SCC, so they are solved
+ *     as independent partitions in parallel.
+ *  Large frontiers inside one partition are also expanded in parallel.
+ *
+ * Every vertex carries a partition colour; a task only ever writes colours of its
+ * own vertices, so tasks need no locks. Output has the {@link Kosaraju.Result}
+ * shape with the same components, but component indices are in discovery order,
+ * not in topological order.
+ */
+public class ParallelScc {
+    private static final int DONE = -1;                  // vertex already assigned to an SCC
+    private static final int NONE = Integer.MIN_VALUE;   // colour that never matches
+    private static final int SPLIT_THRESHOLD = 1 << 12;  // smaller partitions stay on the current worker
+    private static final int FRONTIER_THRESHOLD = 1 << 12; // larger frontiers are expanded in parallel
+    private static final int FRONTIER_CHUNK = 1 << 10;
+
+    // Runs on the common pool
+    public static Kosaraju.Result run(Graph g) {
+        return run(g.toCsr(), ForkJoinPool.commonPool());
+    }
+    /** Runs parallel SCC decomposition on the given pool. */
+    public static Kosaraju.Result run(CsrGraph g, ForkJoinPool pool) {
+        int n = g.getN();
+        Job job = new Job(g, g.transpose());
+        int[] all = new int[n];
+        for (int v = 0; v < n; v++) all[v] = v;
+        if (n > 0) pool.invoke(job.new PartitionTask(0, all));
+
+        // Collect components (vertices in increasing order inside each component)
+        int count = job.nextComponent.get();
+        List<List<Integer>> components = new ArrayList<>(count);
+        for (int c = 0; c < count; c++) components.add(new ArrayList<>());
+        for (int v = 0; v < n; v++) components.get(job.component[v]).add(v);
+        return new Kosaraju.Result(job.component, components);
+    }
+
+    /** Shared state of one decomposition. */
+    private static class Job {
+        final int[] off, to;     // forward CSR
+        final int[] roff, rto;   // reverse CSR
+        final AtomicIntegerArray color;
+        final int[] component;
+        final int[] inDeg, outDeg;
+        final AtomicInteger nextColor = new AtomicInteger(1);
+        final AtomicInteger nextComponent = new AtomicInteger();
+
+        Job(CsrGraph g, CsrGraph gt) {
+            int n = g.getN();
+            off = g.getOffsets();
+            to = g.getTargets();
+            roff = gt.getOffsets();
+            rto = gt.getTargets();
+            color = new AtomicIntegerArray(n); // everyone starts in partition 0
+            component = new int[n];
+            inDeg = new int[n];
+            outDeg = new int[n];
+        }
+
+        /** Solves one partition; small sub-partitions are handled in a local loop. */
+        class PartitionTask extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+            private final int c;
+            private final int[] verts;
+
+            PartitionTask(int c, int[] verts) {
+                this.c = c;
+                this.verts = verts;
+            }
+
+            @Override
+            protected void compute() {
+                List<PartitionTask> forked = new ArrayList<>();
+                Deque<PartitionTask> local = new ArrayDeque<>();
+                local.push(this);
+                while (!local.isEmpty()) {
+                    PartitionTask p = local.pop();
+                    for (PartitionTask sub : solve(p.c, p.verts)) {
+                        if (sub.verts.length >= SPLIT_THRESHOLD) {
+                            sub.fork();
+                            forked.add(sub);
+                        } else {
+                            local.push(sub);
+                        }
+                    }
+                }
+                for (PartitionTask t : forked) t.join();
+            }
+        }
+
+        /** Trims, extracts the pivot SCC and returns the remaining sub-partitions. */
+        private List<PartitionTask> solve(int c, int[] verts) {
+            // Step 1: trimming
+            int[] rest = trim(c, verts);
+            if (rest.length == 0) return List.of();
+
+            // Step 2: forward and backward reachability from the pivot
+            int pivot = rest[0];
+            int fwd = nextColor.getAndIncrement();
+            int bwd = nextColor.getAndIncrement();
+            int scc = nextColor.getAndIncrement();
+            color.set(pivot, fwd);
+            expand(new int[]{pivot}, off, to, c, fwd, NONE, NONE);
+            color.set(pivot, scc);
+            expand(new int[]{pivot}, roff, rto, c, bwd, fwd, scc);
+
+            // Step 3: F ∩ B becomes one component, other sets become new partitions
+            int id = nextComponent.getAndIncrement();
+            int nf = 0, nb = 0, nr = 0;
+            for (int v : rest) {
+                int col = color.get(v);
+                if (col == scc) {
+                    component[v] = id;
+                    color.set(v, DONE);
+                } else if (col == fwd) nf++;
+                else if (col == bwd) nb++;
+                else nr++;
+            }
+            int[] f = new int[nf], b = new int[nb], r = new int[nr];
+            nf = nb = nr = 0;
+            for (int v : rest) {
+                int col = color.get(v);
+                if (col == fwd) f[nf++] = v;
+                else if (col == bwd) b[nb++] = v;
+                else if (col == c) r[nr++] = v;
+            }
+            List<PartitionTask> subs = new ArrayList<>(3);
+            if (nf > 0) subs.add(new PartitionTask(fwd, f));
+            if (nb > 0) subs.add(new PartitionTask(bwd, b));
+            if (nr > 0) subs.add(new PartitionTask(c, r));
+            return subs;
+        }
+
+        /** Removes vertices without in- or out-edges inside partition c as singleton SCCs. */
+        private int[] trim(int c, int[] verts) {
+            int[] queue = new int[verts.length];
+            int head = 0, tail = 0;
+            for (int v : verts) {
+                int out = 0, in = 0;
+                for (int i = off[v]; i < off[v + 1]; i++) if (color.get(to[i]) == c) out++;
+                for (int i = roff[v]; i < roff[v + 1]; i++) if (color.get(rto[i]) == c) in++;
+                outDeg[v] = out;
+                inDeg[v] = in;
+                if (out == 0 || in == 0) queue[tail++] = v;
+            }
+            while (head < tail) {
+                int v = queue[head++];
+                component[v] = nextComponent.getAndIncrement();
+                color.set(v, DONE);
+                for (int i = off[v]; i < off[v + 1]; i++) {
+                    int w = to[i];
+                    if (color.get(w) == c && --inDeg[w] == 0 && outDeg[w] != 0) queue[tail++] = w;
+                }
+                for (int i = roff[v]; i < roff[v + 1]; i++) {
+                    int w = rto[i];
+                    if (color.get(w) == c && --outDeg[w] == 0 && inDeg[w] != 0) queue[tail++] = w;
+                }
+            }
+            if (tail == 0) return verts;
+            int[] rest = new int[verts.length - tail];
+            int k = 0;
+            for (int v : verts) if (color.get(v) == c) rest[k++] = v;
+            return rest;
+        }
+
+        /**
+         * Breadth-first expansion over the given adjacency: vertices coloured fromA
+         * become toA, vertices coloured fromB become toB. Claims use CAS, so large
+         * frontiers can be expanded by several workers at once.
+         */
+        private void expand(int[] frontier, int[] adjOff, int[] adj, int fromA, int toA, int fromB, int toB) {
+            int size = frontier.length;
+            while (size > 0) {
+                if (size < FRONTIER_THRESHOLD) {
+                    // Small frontier: expand on this worker
+                    int[] next = new int[16];
+                    int k = 0;
+                    for (int j = 0; j < size; j++) {
+                        int v = frontier[j];
+                        for (int i = adjOff[v]; i < adjOff[v + 1]; i++) {
+                            int w = adj[i];
+                            if (claim(w, fromA, toA, fromB, toB)) {
+                                if (k == next.length) next = Arrays.copyOf(next, k * 2);
+                                next[k++] = w;
+                            }
+                        }
+                    }
+                    frontier = next;
+                    size = k;
+                    continue;
+                }
+                // Large frontier: split it into chunks expanded in parallel
+                int[] current = frontier;
+                int[][] holder = {new int[size]};
+                AtomicInteger nextSize = new AtomicInteger();
+                List<RecursiveAction> chunks = new ArrayList<>();
+                for (int lo = 0; lo < size; lo += FRONTIER_CHUNK) {
+                    int from = lo, until = Math.min(size, lo + FRONTIER_CHUNK);
+                    chunks.add(new RecursiveAction() {
+                        @Override
+                        protected void compute() {
+                            int[] found = new int[64];
+                            int k = 0;
+                            for (int j = from; j < until; j++) {
+                                int v = current[j];
+                                for (int i = adjOff[v]; i < adjOff[v + 1]; i++) {
+                                    int w = adj[i];
+                                    if (claim(w, fromA, toA, fromB, toB)) {
+                                        if (k == found.length) found = Arrays.copyOf(found, k * 2);
+                                        found[k++] = w;
+                                    }
+                                }
+                            }
+                            append(holder, nextSize, found, k);
+                        }
+                    });
+                }
+                ForkJoinTask.invokeAll(chunks);
+                frontier = holder[0];
+                size = nextSize.get();
+            }
+        }
+
+        private boolean claim(int w, int fromA, int toA, int fromB, int toB) {
+            int col = color.get(w);
+            if (col == fromA) return color.compareAndSet(w, fromA, toA);
+            if (col == fromB) return color.compareAndSet(w, fromB, toB);
+            return false;
+        }
+
+        // Appends a chunk result to the shared next frontier.
+        private static void append(int[][] holder, AtomicInteger size, int[] found, int k) {
+            if (k == 0) return;
+            synchronized (holder) {
+                int at = size.get();
+                if (at + k > holder[0].length)
+                    holder[0] = Arrays.copyOf(holder[0], Math.max(holder[0].length * 2, at + k));
+                System.arraycopy(found, 0, holder[0], at, k);
+                size.set(at + k);
+            }
+        }
+    }
+}
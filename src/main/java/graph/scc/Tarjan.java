@@ -0,0 +1,112 @@
+package graph.scc;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+import graph.util.Metrics;
+import graph.util.Metrics.Counter;
+import java.util.*;
+/**
+ * Iterative Tarjan algorithm for Strongly Connected Components (SCC).
+ *
+ * Same output as {@link Kosaraju#run} but:
+ *  - one DFS pass, no transposed copy of the graph;
+ *  - explicit stacks in int arrays instead of recursion, so long chains
+ *    cannot overflow the thread stack;
+ *  - only primitive arrays of size n are allocated while searching.
+ *
+ * Algorithm:
+ *  1. DFS assigns each vertex a discovery index and a low-link value.
+ *  2. Visited vertices stay on the SCC stack until their root is finished.
+ *  3. When low[v] == index[v], v is a root: pop its component from the stack.
+ *
+ * Tarjan finds components in reverse topological order, so indices are
+ * flipped at the end: component 0 is a source of the condensation DAG,
+ * exactly as in Kosaraju.
+ */
+public class Tarjan {
+    // Runs iterative Tarjan on a graph
+    public static Kosaraju.Result run(Graph g) {
+        return run(g.toCsr(), Metrics.NOOP);
+    }
+    /** Runs iterative Tarjan directly on the CSR arrays. */
+    public static Kosaraju.Result run(CsrGraph g) {
+        return run(g, Metrics.NOOP);
+    }
+    /** Runs iterative Tarjan and reports DFS calls, scanned edges and SCC stack operations. */
+    public static Kosaraju.Result run(CsrGraph g, Metrics metrics) {
+        int n = g.getN();
+        int[] off = g.getOffsets(), to = g.getTargets();
+
+        int[] index = new int[n];      // discovery index, -1 = unvisited
+        int[] low = new int[n];        // low-link value
+        int[] edgePos = new int[n];    // next edge to scan for each vertex on the call stack
+        int[] callStack = new int[n];  // replaces recursion
+        int[] sccStack = new int[n];   // Tarjan's vertex stack
+        boolean[] onStack = new boolean[n];
+        int[] found = new int[n];      // component in order of discovery
+        int[] members = new int[n];    // vertices grouped by component
+        int[] compEnd = new int[n];    // end of each component in members[]
+        Arrays.fill(index, -1);
+
+        int next = 0, count = 0, filled = 0;
+        for (int s = 0; s < n; s++) {
+            if (index[s] != -1) continue;
+            int cp = 0, sp = 0;
+            // Step 1: start a DFS tree at s
+            index[s] = low[s] = next++;
+            edgePos[s] = off[s];
+            callStack[cp++] = s;
+            sccStack[sp++] = s;
+            onStack[s] = true;
+            while (cp > 0) {
+                int v = callStack[cp - 1];
+                if (edgePos[v] < off[v + 1]) {
+                    int w = to[edgePos[v]++];
+                    if (index[w] == -1) {
+                        // Step 2: descend into unvisited neighbour
+                        index[w] = low[w] = next++;
+                        edgePos[w] = off[w];
+                        callStack[cp++] = w;
+                        sccStack[sp++] = w;
+                        onStack[w] = true;
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+                // v is finished
+                cp--;
+                if (low[v] == index[v]) {
+                    // Step 3: v is a root, pop its component
+                    int x;
+                    do {
+                        x = sccStack[--sp];
+                        onStack[x] = false;
+                        found[x] = count;
+                        members[filled++] = x;
+                    } while (x != v);
+                    compEnd[count++] = filled;
+                }
+                if (cp > 0) {
+                    int parent = callStack[cp - 1];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+            }
+        }
+        metrics.add(Counter.DFS_CALLS, n);
+        metrics.add(Counter.EDGES_PROCESSED, g.getEdgesCount());
+        metrics.add(Counter.STACK_PUSHES, n);
+        metrics.add(Counter.STACK_POPS, n);
+
+        // Step 4: reverse discovery order so components follow topological order
+        int[] component = new int[n];
+        for (int v = 0; v < n; v++) component[v] = count - 1 - found[v];
+        List<List<Integer>> components = new ArrayList<>(count);
+        for (int k = count - 1; k >= 0; k--) {
+            int start = k == 0 ? 0 : compEnd[k - 1];
+            List<Integer> comp = new ArrayList<>(compEnd[k] - start);
+            for (int i = start; i < compEnd[k]; i++) comp.add(members[i]);
+            components.add(comp);
+        }
+        return new Kosaraju.Result(component, components);
+    }
+}
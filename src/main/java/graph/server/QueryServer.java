@@ -0,0 +1,361 @@
+package graph.server;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import graph.dagsp.DAGLongestPath;
+import graph.dagsp.DAGShortestPath;
+import graph.model.Graph;
+import graph.scc.Kosaraju;
+import graph.util.GraphLoader;
+import graph.util.GraphPipeline;
+import graph.util.LatencyHistogram;
+import graph.util.StageProfiler;
+import graph.util.StageProfiler.Stage;
+import graph.util.VirtualThreads;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+/**
+ * Long-running local query server (JDK HttpServer, virtual threads when available).
+ *
+ * The dataset is loaded and processed once into an immutable {@link Snapshot}
+ * (graph, SCCs, condensation DAG, topological order). Requests read the current
+ * snapshot from an AtomicReference, so they never lock and the JIT stays warm
+ * across queries. A reload builds the new snapshot on the side and swaps it in
+ * with one atomic set; requests already running finish on the old one.
+ * Building a snapshot (load on reload, SCC, condensation, topological sort) and
+ * every path query are timed through the server's {@link StageProfiler}, so they
+ * appear as JFR events and in /latency.
+ *
+ * Endpoints (JSON responses; request parameters are original vertex ids,
+ * paths are condensation component ids):
+ *   GET  /stats                          n, edges, components, snapshot version
+ *   GET  /scc?v=3                        component of v and its members
+ *   GET  /shortest?src=0[&target=5]      distance + component_path, or all component distances
+ *   GET  /critical?src=0                 critical (longest) component_path and its length
+ *   GET  /latency                        count and percentiles (ns) per dataset and stage since start
+ *   POST /reload?dataset=large_2.json    bundled resource name, or a file under the data directory
+ *
+ * The server only binds to loopback addresses unless {@link Options#allowRemote} is set.
+ * /reload never takes arbitrary paths: a name is resolved inside {@link Options#dataDir}
+ * (after normalizing and resolving links) or looked up among the bundled resources,
+ * and requests carrying an Origin header (browser cross-origin posts) are refused.
+ * With a snapshot directory, processed stages are persisted per dataset
+ * ({@link graph.util.PipelineSnapshot}) and a restart reads them instead of recomputing.
+ * Usage: QueryServer [dataset] [port] [snapshotDir] [dataDir]
+ */
+public class QueryServer implements AutoCloseable {
+    private static final JsonFactory JSON = new JsonFactory();
+
+    /** Server settings; defaults: loopback only, no data directory, no snapshots. */
+    public static final class Options {
+        private Path snapshotDir;
+        private Path dataDir;
+        private boolean allowRemote;
+
+        /** Persists processed stages in dir (null = do not persist). */
+        public Options snapshotDir(Path dir) {
+            this.snapshotDir = dir;
+            return this;
+        }
+        /** Directory /reload may load .json / .bin files from (null = bundled resources only). */
+        public Options dataDir(Path dir) {
+            this.dataDir = dir;
+            return this;
+        }
+        /** Allows binding to non-loopback addresses (the server has no authentication). */
+        public Options allowRemote(boolean allow) {
+            this.allowRemote = allow;
+            return this;
+        }
+    }
+
+    /**
+     * Immutable processed state of one dataset. Both graphs are read-only views
+     * ({@link Graph#unmodifiable()}) and the SCC component lists are unmodifiable;
+     * the scc.component array is shared and read-only by convention.
+     */
+    public static final class Snapshot {
+        public final GraphLoader.DataSet data;
+        public final Kosaraju.Result scc;
+        public final Graph dag;
+        public final List<Integer> topo;
+        public final long version;
+
+        private Snapshot(GraphLoader.DataSet data, long version, Path snapshotDir, StageProfiler profiler) {
+            // a private one-entry cache: the server holds the only reference
+            GraphPipeline.Cache cache = new GraphPipeline.Cache(1);
+            Graph graph = data.graph.unmodifiable();
+            GraphPipeline pipeline;
+            try {
+                pipeline = GraphPipeline.of(graph, cache, snapshotDir, profiler, data.name);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Snapshot error: " + data.name, e);
+            }
+            this.data = new GraphLoader.DataSet(graph, data.source, data.weightModel, data.name);
+            this.scc = pipeline.scc();
+            this.dag = pipeline.condensation();
+            this.topo = pipeline.topologicalOrder();
+            this.version = version;
+        }
+    }
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final Object reloadLock = new Object(); // serializes writers only
+    private final HttpServer http;
+    private final ExecutorService executor;
+    private final Path snapshotDir; // null = do not persist
+    private final Path dataDir;     // real path, null = resources only
+    private final StageProfiler profiler = new StageProfiler(); // snapshot builds and path queries
+
+    private QueryServer(InetSocketAddress address, GraphLoader.DataSet initial, Options options) throws IOException {
+        if (!options.allowRemote && (address.getAddress() == null || !address.getAddress().isLoopbackAddress()))
+            throw new IllegalArgumentException("Refusing to bind to non-loopback address " + address
+                    + " (set Options.allowRemote to override)");
+        this.snapshotDir = options.snapshotDir;
+        this.dataDir = options.dataDir == null ? null : options.dataDir.toRealPath();
+        current.set(new Snapshot(initial, 1, snapshotDir, profiler));
+        http = HttpServer.create(address, 0);
+        executor = VirtualThreads.newExecutor(2 * Runtime.getRuntime().availableProcessors());
+        http.setExecutor(executor);
+        http.createContext("/stats", ex -> handle(ex, "GET", this::stats));
+        http.createContext("/scc", ex -> handle(ex, "GET", this::scc));
+        http.createContext("/shortest", ex -> handle(ex, "GET", this::shortest));
+        http.createContext("/critical", ex -> handle(ex, "GET", this::critical));
+        http.createContext("/latency", ex -> handle(ex, "GET", this::latency));
+        http.createContext("/reload", ex -> handle(ex, "POST", this::reloadRequest));
+    }
+
+    /** Processes the dataset and starts serving on a loopback address (port 0 = any free port). */
+    public static QueryServer start(InetSocketAddress address, GraphLoader.DataSet initial) throws IOException {
+        return start(address, initial, new Options());
+    }
+    /**
+     * Like {@link #start(InetSocketAddress, GraphLoader.DataSet)} with explicit options.
+     *
+     * @throws IllegalArgumentException if address is not loopback and remote access is not allowed
+     */
+    public static QueryServer start(InetSocketAddress address, GraphLoader.DataSet initial, Options options)
+            throws IOException {
+        QueryServer server = new QueryServer(address, initial, options);
+        server.http.start();
+        return server;
+    }
+    public int port() {
+        return http.getAddress().getPort();
+    }
+    /** The snapshot new requests will see. */
+    public Snapshot snapshot() {
+        return current.get();
+    }
+    /** Latency histograms of the snapshot builds and path queries so far. */
+    public StageProfiler profiler() {
+        return profiler;
+    }
+    /** Builds a snapshot for ds and swaps it in; readers are never blocked. */
+    public Snapshot reload(GraphLoader.DataSet ds) {
+        synchronized (reloadLock) {
+            Snapshot next = new Snapshot(ds, current.get().version + 1, snapshotDir, profiler);
+            current.set(next);
+            return next;
+        }
+    }
+    @Override
+    public void close() {
+        http.stop(0);
+        executor.shutdownNow();
+    }
+
+    // === Handlers: each reads the snapshot once and works only on it ===
+    private void stats(Snapshot s, Map<String, String> q, JsonGenerator out) throws IOException {
+        out.writeStringField("dataset", s.data.name);
+        out.writeNumberField("version", s.version);
+        out.writeNumberField("vertices", s.data.graph.getN());
+        out.writeNumberField("edges", s.data.graph.getEdgesCount());
+        out.writeNumberField("components", s.scc.components.size());
+        out.writeNumberField("dag_edges", s.dag.getEdgesCount());
+    }
+    private void scc(Snapshot s, Map<String, String> q, JsonGenerator out) throws IOException {
+        int v = vertex(s, q, "v");
+        int c = s.scc.component[v];
+        out.writeNumberField("vertex", v);
+        out.writeNumberField("component", c);
+        writeArray(out, "members", s.scc.components.get(c));
+    }
+    private void shortest(Snapshot s, Map<String, String> q, JsonGenerator out) throws IOException {
+        int src = vertex(s, q, "src");
+        var span = profiler.start(Stage.SHORTEST_PATH, s.data.name);
+        var sp = DAGShortestPath.run(s.dag, s.topo, s.scc.component[src]);
+        span.end();
+        out.writeNumberField("source_component", sp.src);
+        if (q.containsKey("target")) {
+            int target = s.scc.component[vertex(s, q, "target")];
+            boolean reachable = sp.dist[target] != Long.MAX_VALUE;
+            out.writeNumberField("target_component", target);
+            out.writeBooleanField("reachable", reachable);
+            if (reachable) out.writeNumberField("distance", sp.dist[target]);
+            writeArray(out, "component_path", sp.pathTo(target));
+        } else {
+            out.writeArrayFieldStart("distances"); // null = unreachable
+            for (long d : sp.dist) {
+                if (d == Long.MAX_VALUE) out.writeNull();
+                else out.writeNumber(d);
+            }
+            out.writeEndArray();
+        }
+    }
+    private void critical(Snapshot s, Map<String, String> q, JsonGenerator out) throws IOException {
+        int src = vertex(s, q, "src");
+        var span = profiler.start(Stage.LONGEST_PATH, s.data.name);
+        var lp = DAGLongestPath.run(s.dag, s.topo, s.scc.component[src]);
+        span.end();
+        out.writeNumberField("source_component", lp.src);
+        out.writeNumberField("length", lp.length());
+        writeArray(out, "component_path", lp.criticalPathArray());
+    }
+    private void latency(Snapshot s, Map<String, String> q, JsonGenerator out) throws IOException {
+        for (String dataset : profiler.datasets()) {
+            out.writeObjectFieldStart(dataset);
+            for (Stage stage : Stage.values()) {
+                LatencyHistogram h = profiler.histogram(dataset, stage);
+                if (h == null || h.count() == 0) continue;
+                out.writeObjectFieldStart(stage.key);
+                out.writeNumberField("count", h.count());
+                out.writeNumberField("p50", h.percentile(0.5));
+                out.writeNumberField("p99", h.percentile(0.99));
+                out.writeNumberField("p999", h.percentile(0.999));
+                out.writeNumberField("max", h.max());
+                out.writeEndObject();
+            }
+            out.writeEndObject();
+        }
+    }
+    private void reloadRequest(Snapshot s, Map<String, String> q, JsonGenerator out) throws IOException {
+        String name = q.get("dataset");
+        if (name == null) throw new IllegalArgumentException("Missing parameter: dataset");
+        var span = profiler.start(Stage.LOAD, name);
+        GraphLoader.DataSet ds = resolveDataset(name);
+        span.end();
+        Snapshot next = reload(ds);
+        out.writeStringField("dataset", next.data.name);
+        out.writeNumberField("version", next.version);
+    }
+
+    // A file inside dataDir, else a bundled resource; anything else is rejected.
+    private GraphLoader.DataSet resolveDataset(String name) throws IOException {
+        if (dataDir != null) {
+            Path path = dataDir.resolve(name).normalize();
+            if (path.startsWith(dataDir) && Files.isRegularFile(path) && path.toRealPath().startsWith(dataDir))
+                return GraphLoader.load(path);
+        }
+        if (!name.matches("[A-Za-z0-9_.-]+\\.json") || name.contains(".."))
+            throw new IllegalArgumentException("Unknown dataset: " + name);
+        if (GraphLoader.class.getResource("/data/" + name) == null)
+            throw new IllegalArgumentException("Unknown dataset: " + name);
+        return GraphLoader.loadFromResource(name);
+    }
+
+    // === Plumbing ===
+    @FunctionalInterface
+    private interface Handler {
+        void write(Snapshot s, Map<String, String> query, JsonGenerator out) throws IOException;
+    }
+    private void handle(HttpExchange ex, String method, Handler handler) throws IOException {
+        int status = 200;
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try {
+            if (!ex.getRequestMethod().equals(method)) {
+                status = 405;
+                writeError(body, method + " required");
+            } else if (!method.equals("GET") && ex.getRequestHeaders().containsKey("Origin")) {
+                status = 403; // state-changing requests only from non-browser clients
+                writeError(body, "Cross-origin requests are not accepted");
+            } else {
+                Map<String, String> query = parseQuery(ex.getRequestURI().getRawQuery());
+                try (JsonGenerator out = JSON.createGenerator(body)) {
+                    out.writeStartObject();
+                    handler.write(current.get(), query, out);
+                    out.writeEndObject();
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            status = 400;
+            body.reset();
+            writeError(body, e.getMessage());
+        } catch (RuntimeException e) {
+            status = 500;
+            body.reset();
+            writeError(body, String.valueOf(e.getMessage()));
+        }
+        ex.getResponseHeaders().set("Content-Type", "application/json");
+        ex.sendResponseHeaders(status, body.size());
+        try (OutputStream os = ex.getResponseBody()) {
+            body.writeTo(os);
+        }
+    }
+    private static void writeError(ByteArrayOutputStream body, String message) throws IOException {
+        try (JsonGenerator out = JSON.createGenerator(body)) {
+            out.writeStartObject();
+            out.writeStringField("error", message);
+            out.writeEndObject();
+        }
+    }
+    private static Map<String, String> parseQuery(String raw) {
+        Map<String, String> query = new HashMap<>();
+        if (raw == null || raw.isEmpty()) return query;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            query.put(key, value);
+        }
+        return query;
+    }
+    private static int vertex(Snapshot s, Map<String, String> q, String name) {
+        String value = q.get(name);
+        if (value == null) throw new IllegalArgumentException("Missing parameter: " + name);
+        int v;
+        try {
+            v = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a vertex id: " + value);
+        }
+        if (v < 0 || v >= s.data.graph.getN())
+            throw new IllegalArgumentException("Vertex out of range: " + v);
+        return v;
+    }
+    private static void writeArray(JsonGenerator out, String name, List<Integer> values) throws IOException {
+        out.writeArrayFieldStart(name);
+        for (int v : values) out.writeNumber(v);
+        out.writeEndArray();
+    }
+    private static void writeArray(JsonGenerator out, String name, int[] values) throws IOException {
+        out.writeArrayFieldStart(name);
+        for (int v : values) out.writeNumber(v);
+        out.writeEndArray();
+    }
+
+    /** Starts a server on localhost and runs until the process is stopped. */
+    public static void main(String[] args) throws IOException {
+        String dataset = args.length > 0 ? args[0] : "large_1.json";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+        Path path = Path.of(dataset);
+        var ds = Files.isRegularFile(path) ? GraphLoader.load(path) : GraphLoader.loadFromResource(dataset);
+        Options options = new Options()
+                .snapshotDir(args.length > 2 && !args[2].isEmpty() ? Path.of(args[2]) : null)
+                .dataDir(args.length > 3 ? Path.of(args[3]) : null);
+        QueryServer server = start(new InetSocketAddress("127.0.0.1", port), ds, options);
+        System.out.println("Serving " + ds.name + " on http://127.0.0.1:" + server.port()
+                + (VirtualThreads.available() ? " (virtual threads)" : " (thread pool)"));
+    }
+}
@@ -0,0 +1,108 @@
+package graph.topo;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+/**
+ * Level-structured topological sort (Kahn's algorithm, wavefront by wavefront).
+ *
+ * Steps:
+ *  1. Compute in-degrees (in parallel for large graphs).
+ *  2. Level 0 = all vertices with in-degree 0.
+ *  3. Level k + 1 = vertices whose last remaining in-edge comes from level k.
+ *
+ * Vertices inside one level are independent of each other, so they can be
+ * scheduled concurrently, and DP over the DAG can be parallelised level by level.
+ * Iterative, no recursion; results are kept in primitive arrays.
+ */
+public class LevelTopologicalSort {
+    private static final int PARALLEL_THRESHOLD = 1 << 16; // edges
+    private static final int CHUNK = 1 << 12;              // vertices per parallel in-degree task
+
+    /** Topological levels (wavefronts) of a DAG. */
+    public static class Result {
+        public final int[] order;      // vertices grouped level by level (valid topological order)
+        public final int[] levelStart; // level k is order[levelStart[k] .. levelStart[k + 1] - 1]
+        public final int[] level;      // level index of each vertex
+
+        public Result(int[] order, int[] levelStart, int[] level) {
+            this.order = order;
+            this.levelStart = levelStart;
+            this.level = level;
+        }
+        public int levelCount() {
+            return levelStart.length - 1;
+        }
+        /** Returns a copy of the vertices in level k. */
+        public int[] levelVertices(int k) {
+            return Arrays.copyOfRange(order, levelStart[k], levelStart[k + 1]);
+        }
+        /** Flat topological order, compatible with DAGShortestPath / DAGLongestPath. */
+        public List<Integer> toList() {
+            List<Integer> list = new ArrayList<>(order.length);
+            for (int v : order) list.add(v);
+            return list;
+        }
+    }
+
+    public static Result sort(Graph g) {
+        return sort(g.toCsr());
+    }
+    /**
+     * Runs Kahn's algorithm on the CSR arrays.
+     *
+     * @throws IllegalArgumentException if the graph has a cycle
+     */
+    public static Result sort(CsrGraph g) {
+        int n = g.getN();
+        int[] off = g.getOffsets(), to = g.getTargets();
+        // Step 1: in-degrees
+        int[] indeg = inDegrees(g);
+
+        int[] order = new int[n];
+        int[] level = new int[n];
+        int[] levelStart = new int[n + 2];
+        int tail = 0;
+        // Step 2: first wavefront
+        for (int v = 0; v < n; v++) if (indeg[v] == 0) order[tail++] = v;
+
+        // Step 3: peel one wavefront at a time
+        int levels = 0, head = 0;
+        while (head < tail) {
+            int end = tail;
+            levelStart[levels] = head;
+            for (; head < end; head++) {
+                int u = order[head];
+                level[u] = levels;
+                for (int i = off[u]; i < off[u + 1]; i++) {
+                    if (--indeg[to[i]] == 0) order[tail++] = to[i];
+                }
+            }
+            levels++;
+        }
+        if (tail < n)
+            throw new IllegalArgumentException("Graph has a cycle: " + (n - tail) + " vertices cannot be ordered");
+        levelStart[levels] = n;
+        return new Result(order, Arrays.copyOf(levelStart, levels + 1), level);
+    }
+
+    // Counts incoming edges; large graphs are split into vertex chunks processed in parallel.
+    private static int[] inDegrees(CsrGraph g) {
+        int n = g.getN();
+        int[] off = g.getOffsets(), to = g.getTargets();
+        if (g.getEdgesCount() < PARALLEL_THRESHOLD) {
+            int[] indeg = new int[n];
+            for (int i = 0; i < off[n]; i++) indeg[to[i]]++;
+            return indeg;
+        }
+        AtomicIntegerArray counts = new AtomicIntegerArray(n);
+        IntStream.range(0, (n + CHUNK - 1) / CHUNK).parallel().forEach(c -> {
+            int lo = c * CHUNK, hi = Math.min(n, lo + CHUNK);
+            for (int i = off[lo]; i < off[hi]; i++) counts.getAndIncrement(to[i]);
+        });
+        int[] indeg = new int[n];
+        for (int v = 0; v < n; v++) indeg[v] = counts.get(v);
+        return indeg;
+    }
+}
@@ -1,6 +1,8 @@
 package graph.topo;
-import graph.model.Edge;
+import graph.model.CsrGraph;
 import graph.model.Graph;
+import graph.util.Metrics;
+import graph.util.Metrics.Counter;
 import java.util.*;
 /**
  * Performs Topological Sort on a Directed Acyclic Graph (DAG)
@@ -8,35 +10,60 @@ import java.util.*;
  *
  * Steps:
  *  1. Visit each unvisited vertex.
- *  2. Explore all outgoing edges recursively.
+ *  2. Explore all outgoing edges depth-first (explicit stack, no recursion,
+ *     same visit order as a recursive DFS).
  *  3. Push the vertex into stack after exploration.
  *  4. Reverse stack to obtain valid topological order.
  */
 public class TopologicalSort {
     //  Runs topological sort on a DAG and returns the order of vertices.
     public static List<Integer> sort (Graph g) {
+        return sort(g.toCsr(), Metrics.NOOP);
+    }
+    //  Same as sort(Graph) but reports DFS calls, scanned edges and stack pushes.
+    public static List<Integer> sort (Graph g, Metrics metrics) {
+        return sort(g.toCsr(), metrics);
+    }
+    //  Same as sort(Graph) but traverses the CSR arrays directly.
+    public static List<Integer> sort (CsrGraph g, Metrics metrics) {
         int n= g.getN();
         boolean[] visited = new boolean[n];
         Deque<Integer> stack = new ArrayDeque<>();
+        int[] path = new int[n], cursor = new int[n]; // explicit DFS stack
         // Step 1: Perform DFS on all vertices
         for (int v=0;v<n;v++) {
             if (!visited[v]) {
-                dfs(g,v,visited,stack);
+                dfs(g,v,visited,stack,path,cursor,metrics);
             }
         }
         // Do NOT reverse — stack already gives correct topological order
         return new ArrayList<>(stack);
     }
-    //Helper DFS that fills stack based on finish time.
-    private static void dfs(Graph graph, int v, boolean[] visited, Deque<Integer> stack) {
-        visited[v] = true;
-
-        for (Edge e: graph.getAdj().get(v)) {
-            if (!visited[e.getV()]) {
-                dfs(graph,e.getV(),visited,stack);
+    //Helper DFS that fills stack based on finish time (path[] holds the vertices being explored).
+    private static void dfs(CsrGraph graph, int s, boolean[] visited, Deque<Integer> stack,
+                            int[] path, int[] cursor, Metrics metrics) {
+        int[] off = graph.getOffsets(), to = graph.getTargets();
+        int sp = 0;
+        path[sp++] = enter(s, off, visited, cursor, metrics);
+        while (sp > 0) {
+            int v = path[sp - 1];
+            if (cursor[v] < off[v + 1]) {
+                int w = to[cursor[v]++];
+                if (!visited[w]) path[sp++] = enter(w, off, visited, cursor, metrics);
+            } else {
+                // when vertex fully explored, push it into stack
+                sp--;
+                stack.push(v);
+                metrics.inc(Counter.STACK_PUSHES);
             }
         }
-        // when vertex fully explored, push it into stack
-        stack.push(v);
+    }
+    // Marks v visited and counts it as one DFS call.
+    private static int enter(int v, int[] off, boolean[] visited, int[] cursor, Metrics metrics) {
+        visited[v] = true;
+        cursor[v] = off[v];
+        metrics.inc(Counter.DFS_CALLS);
+        metrics.add(Counter.EDGES_PROCESSED, off[v + 1] - off[v]);
+        return v;
     }
 }
@@ -0,0 +1,210 @@
+package graph.util;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.stream.Stream;
+/**
+ * Compact binary on-disk format for graphs (little-endian, 4-byte aligned).
+ *
+ * Layout:
+ *   int    magic          "SCGB"
+ *   int    version        1
+ *   int    flags          bit 0 = directed
+ *   int    n              number of vertices
+ *   int    m              number of stored edges (undirected edges twice)
+ *   int    source
+ *   int    wmLength       length of weight_model in UTF-8 bytes
+ *   byte[] weight_model   padded with zeros to a multiple of 4
+ *   int[]  offsets        n + 1 values (CSR)
+ *   int[]  targets        m values
+ *   int[]  weights        m values
+ *
+ * The edge sections are the CSR arrays themselves, so reading is a memory map
+ * plus three bulk copies: no parsing and no per-edge objects.
+ * Usage of the converter: BinaryGraphFormat [jsonDir] [outputDir]
+ */
+public class BinaryGraphFormat {
+    public static final int MAGIC = 0x53434742; // "SCGB"
+    public static final int VERSION = 1;
+    private static final long MAX_MAP_BYTES = 1L << 30; // map large sections in 1 GB windows
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    /** Header fields and byte positions of the array sections. */
+    public static class Header {
+        public final boolean directed;
+        public final int n;
+        public final int m;
+        public final int source;
+        public final String weightModel;
+        public final long offsetsPos;
+        public final long targetsPos;
+        public final long weightsPos;
+
+        Header(boolean directed, int n, int m, int source, String weightModel, long offsetsPos) {
+            this.directed = directed;
+            this.n = n;
+            this.m = m;
+            this.source = source;
+            this.weightModel = weightModel;
+            this.offsetsPos = offsetsPos;
+            this.targetsPos = offsetsPos + 4L * ((long) n + 1);
+            this.weightsPos = targetsPos + 4L * m;
+        }
+    }
+
+    /** Writes a dataset in binary form. */
+    public static void write(GraphLoader.DataSet ds, Path out) throws IOException {
+        write(ds.graph, ds.source, ds.weightModel, out);
+    }
+    /** Writes a graph and its metadata in binary form. */
+    public static void write(Graph g, int source, String weightModel, Path out) throws IOException {
+        CsrGraph csr = g.toCsr();
+        byte[] wm = weightModel.getBytes(StandardCharsets.UTF_8);
+        try (FileChannel ch = FileChannel.open(out, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            // Step 1: header
+            buf.putInt(MAGIC).putInt(VERSION).putInt(csr.isDirected() ? 1 : 0)
+               .putInt(csr.getN()).putInt(csr.getEdgesCount()).putInt(source).putInt(wm.length);
+            buf.put(wm);
+            while (buf.position() % 4 != 0) buf.put((byte) 0);
+            // Step 2: CSR sections
+            writeInts(ch, buf, csr.getOffsets());
+            writeInts(ch, buf, csr.getTargets());
+            writeInts(ch, buf, csr.getWeights());
+            buf.flip();
+            while (buf.hasRemaining()) ch.write(buf);
+        }
+    }
+    /**
+     * Writes only the header of a graph with n vertices and m edges and extends
+     * the file to its full size, so the sections can be filled through a
+     * read-write memory map (used by the out-of-core pipeline).
+     */
+    public static Header allocate(FileChannel ch, boolean directed, int n, int m, int source,
+                                  String weightModel) throws IOException {
+        byte[] wm = weightModel.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buf = ByteBuffer.allocate(28 + ((wm.length + 3) & ~3)).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(directed ? 1 : 0)
+           .putInt(n).putInt(m).putInt(source).putInt(wm.length);
+        buf.put(wm);
+        buf.position(buf.capacity()).flip();
+        ch.truncate(0);
+        ch.write(buf, 0);
+        Header h = new Header(directed, n, m, source, weightModel, buf.capacity());
+        ch.write(ByteBuffer.allocate(1), h.weightsPos + 4L * m - 1); // writing the last byte sets the size
+        return h;
+    }
+    static void writeInts(FileChannel ch, ByteBuffer buf, int[] values) throws IOException {
+        for (int i = 0; i < values.length; ) {
+            if (buf.remaining() < 4) {
+                buf.flip();
+                while (buf.hasRemaining()) ch.write(buf);
+                buf.clear();
+            }
+            int count = Math.min(values.length - i, buf.remaining() / 4);
+            buf.asIntBuffer().put(values, i, count);
+            buf.position(buf.position() + 4 * count);
+            i += count;
+        }
+    }
+
+    /**
+     * Reads and validates the header of an open binary graph file: counts must be
+     * non-negative, the weight model must fit in the file and the file must be
+     * long enough for all three arrays.
+     *
+     * @throws IllegalArgumentException if the header is invalid or the file truncated
+     */
+    public static Header readHeader(FileChannel ch) throws IOException {
+        ByteBuffer head = ch.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(ch.size(), 28))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        if (head.remaining() < 28 || head.getInt() != MAGIC)
+            throw new IllegalArgumentException("Not a binary graph file");
+        int version = head.getInt();
+        if (version != VERSION)
+            throw new IllegalArgumentException("Unsupported binary graph version: " + version);
+        boolean directed = (head.getInt() & 1) != 0;
+        int n = head.getInt();
+        int m = head.getInt();
+        int source = head.getInt();
+        int wmLength = head.getInt();
+        if (n < 0 || n == Integer.MAX_VALUE || m < 0)
+            throw new IllegalArgumentException("Invalid binary graph size: n=" + n + ", m=" + m);
+        if (wmLength < 0 || wmLength > ch.size() - 28)
+            throw new IllegalArgumentException("Invalid weight model length: " + wmLength);
+        byte[] wm = new byte[wmLength];
+        ch.map(FileChannel.MapMode.READ_ONLY, 28, wmLength).get(wm);
+        long offsetsPos = 28 + ((wmLength + 3) & ~3L);
+        Header h = new Header(directed, n, m, source, new String(wm, StandardCharsets.UTF_8), offsetsPos);
+        if (ch.size() < h.weightsPos + 4L * m)
+            throw new IllegalArgumentException("Truncated binary graph file");
+        return h;
+    }
+
+    /**
+     * Memory-maps a binary graph file and returns it as a frozen dataset.
+     *
+     * @throws IllegalArgumentException if the file is not a valid binary graph
+     *         (bad header, truncated, or CSR offsets / targets out of range)
+     */
+    public static GraphLoader.DataSet read(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            Header h = readHeader(ch);
+            int[] offsets = readInts(ch, h.offsetsPos, h.n + 1);
+            int[] targets = readInts(ch, h.targetsPos, h.m);
+            int[] weights = readInts(ch, h.weightsPos, h.m);
+            checkCsr(h.n, h.m, offsets, targets);
+            Graph g = new Graph(new CsrGraph(h.n, h.directed, offsets, targets, weights));
+            return new GraphLoader.DataSet(g, h.source, h.weightModel, path.getFileName().toString());
+        }
+    }
+    // offsets must run monotonically from 0 to m and every target must be a vertex.
+    private static void checkCsr(int n, int m, int[] offsets, int[] targets) {
+        if (offsets[0] != 0 || offsets[n] != m)
+            throw new IllegalArgumentException("Corrupt binary graph: offsets do not span 0.." + m);
+        for (int u = 0; u < n; u++) {
+            if (offsets[u + 1] < offsets[u])
+                throw new IllegalArgumentException("Corrupt binary graph: offsets decrease at vertex " + u);
+        }
+        for (int i = 0; i < m; i++) {
+            if (targets[i] < 0 || targets[i] >= n)
+                throw new IllegalArgumentException("Corrupt binary graph: edge target out of range: " + targets[i]);
+        }
+    }
+    // Bulk-copies count ints starting at byte position pos, one mapped window at a time.
+    static int[] readInts(FileChannel ch, long pos, int count) throws IOException {
+        int[] values = new int[count];
+        int done = 0;
+        while (done < count) {
+            int chunk = (int) Math.min(count - done, MAX_MAP_BYTES / 4);
+            IntBuffer ints = ch.map(FileChannel.MapMode.READ_ONLY, pos + 4L * done, 4L * chunk)
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            ints.get(values, done, chunk);
+            done += chunk;
+        }
+        return values;
+    }
+
+    /** Converts every JSON dataset of a directory into the binary format. */
+    public static void main(String[] args) throws IOException {
+        Path inputDir = Path.of(args.length > 0 ? args[0] : "src/main/resources/data");
+        Path outputDir = Path.of(args.length > 1 ? args[1] : "target/binary-data");
+        Files.createDirectories(outputDir);
+        try (Stream<Path> files = Files.list(inputDir)) {
+            for (Path json : (Iterable<Path>) files.filter(p -> p.toString().endsWith(".json")).sorted()::iterator) {
+                var ds = GraphLoader.loadFromPath(json);
+                String name = json.getFileName().toString().replaceFirst("\\.json$", ".bin");
+                Path out = outputDir.resolve(name);
+                write(ds, out);
+                System.out.printf("%-14s -> %s (%d bytes)%n", json.getFileName(), out, Files.size(out));
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package graph.util;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+/**
+ * Deterministic synthetic workload generator for city-scale dependency graphs.
+ *
+ * Structure of a generated graph:
+ *  1. Vertices are split into consecutive blocks; every block is one SCC
+ *     (a ring, plus random chords inside the block controlled by cycle density).
+ *  2. Blocks are spread over DAG layers; edges between blocks only go from a
+ *     layer to a later layer, so the condensation is exactly the block DAG.
+ *  3. Weights are uniform in [minWeight, maxWeight].
+ *
+ * The same seed and settings always produce the same edge sequence. Edges are
+ * streamed to an {@link EdgeSink}, straight into a CSR builder ({@link #toGraph})
+ * or into a JSON file in the dataset schema ({@link #writeJson}); only one int
+ * per block is kept in memory.
+ */
+public class GraphGenerator {
+    /** Distribution of SCC (block) sizes. */
+    public enum SccSizes { FIXED, UNIFORM, POWER_LAW }
+
+    /** Receives generated edges one by one. */
+    @FunctionalInterface
+    public interface EdgeSink {
+        void accept(int u, int v, int w);
+    }
+
+    private long seed = 42L;
+    private int vertices = 1000;
+    private SccSizes sccSizes = SccSizes.UNIFORM;
+    private int minScc = 1;
+    private int maxScc = 8;
+    private double cycleDensity = 0.2;
+    private int minWeight = 1;
+    private int maxWeight = 20;
+    private int layers = 16;
+    private double dagEdgesPerComponent = 2.0;
+
+    public GraphGenerator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+    /** Number of vertices (10^3 .. 10^8 in practice). */
+    public GraphGenerator vertices(int vertices) {
+        if (vertices < 1) throw new IllegalArgumentException("vertices must be positive");
+        this.vertices = vertices;
+        return this;
+    }
+    /** SCC size distribution; FIXED uses max as the size. */
+    public GraphGenerator sccSizes(SccSizes distribution, int min, int max) {
+        if (min < 1 || max < min) throw new IllegalArgumentException("Invalid SCC size range");
+        this.sccSizes = distribution;
+        this.minScc = min;
+        this.maxScc = max;
+        return this;
+    }
+    /** Probability that a vertex gets an extra chord inside its SCC (more cycles). */
+    public GraphGenerator cycleDensity(double density) {
+        if (density < 0) throw new IllegalArgumentException("cycleDensity must be >= 0");
+        this.cycleDensity = density;
+        return this;
+    }
+    public GraphGenerator weights(int min, int max) {
+        if (max < min) throw new IllegalArgumentException("Invalid weight range");
+        this.minWeight = min;
+        this.maxWeight = max;
+        return this;
+    }
+    /** Number of DAG layers the SCCs are spread over. */
+    public GraphGenerator layers(int layers) {
+        if (layers < 1) throw new IllegalArgumentException("layers must be positive");
+        this.layers = layers;
+        return this;
+    }
+    /** Average number of edges leaving each SCC towards later layers. */
+    public GraphGenerator dagEdgesPerComponent(double edges) {
+        if (edges < 0) throw new IllegalArgumentException("dagEdgesPerComponent must be >= 0");
+        this.dagEdgesPerComponent = edges;
+        return this;
+    }
+
+    /**
+     * Streams all edges to the sink.
+     *
+     * @return number of generated edges
+     */
+    public long generate(EdgeSink sink) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        // Step 1: split vertices into SCC blocks
+        int[] start = blockStarts(rnd);
+        int comps = start.length - 1;
+        long edges = 0;
+        for (int c = 0; c < comps; c++) {
+            int lo = start[c], size = start[c + 1] - lo;
+            // Step 2: ring + chords inside the block
+            if (size > 1) {
+                for (int i = 0; i < size; i++) {
+                    sink.accept(lo + i, lo + (i + 1) % size, weight(rnd));
+                    edges++;
+                    if (rnd.nextDouble() < cycleDensity) {
+                        sink.accept(lo + i, lo + rnd.nextInt(size), weight(rnd));
+                        edges++;
+                    }
+                }
+            }
+            // Step 3: forward edges to blocks of later layers
+            int nextLayer = layerOf(c, comps) + 1;
+            if (nextLayer >= layers) continue;
+            int firstTarget = firstComponentOf(nextLayer, comps);
+            if (firstTarget >= comps) continue;
+            int count = (int) dagEdgesPerComponent;
+            if (rnd.nextDouble() < dagEdgesPerComponent - count) count++;
+            for (int k = 0; k < count; k++) {
+                int d = firstTarget + rnd.nextInt(comps - firstTarget);
+                int u = lo + rnd.nextInt(size);
+                int v = start[d] + rnd.nextInt(start[d + 1] - start[d]);
+                sink.accept(u, v, weight(rnd));
+                edges++;
+            }
+        }
+        return edges;
+    }
+
+    /** Generates the graph straight into CSR form (frozen Graph). */
+    public Graph toGraph() {
+        CsrGraph.Builder builder = new CsrGraph.Builder(true);
+        generate(builder::addEdge);
+        return new Graph(builder.build(vertices));
+    }
+
+    /** Generates the graph as a dataset (source 0, edge weight model). */
+    public GraphLoader.DataSet toDataSet(String name) {
+        return new GraphLoader.DataSet(toGraph(), 0, "edge", name);
+    }
+
+    /** Streams the graph into a JSON file using the dataset schema. */
+    public void writeJson(Path out) {
+        try (JsonGenerator json = new JsonFactory().createGenerator(out.toFile(), JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeBooleanField("directed", true);
+            json.writeNumberField("n", vertices);
+            json.writeNumberField("source", 0);
+            json.writeStringField("weight_model", "edge");
+            json.writeArrayFieldStart("edges");
+            generate((u, v, w) -> {
+                try {
+                    json.writeStartObject();
+                    json.writeNumberField("u", u);
+                    json.writeNumberField("v", v);
+                    json.writeNumberField("w", w);
+                    json.writeEndObject();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            json.writeEndArray();
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Start vertex of each block, plus vertices at the end.
+    private int[] blockStarts(SplittableRandom rnd) {
+        int[] start = new int[16];
+        int comps = 0, v = 0;
+        while (v < vertices) {
+            if (comps + 1 >= start.length) start = Arrays.copyOf(start, start.length * 2);
+            start[comps++] = v;
+            v += Math.min(nextSize(rnd), vertices - v);
+        }
+        start[comps] = vertices;
+        return Arrays.copyOf(start, comps + 1);
+    }
+    private int nextSize(SplittableRandom rnd) {
+        switch (sccSizes) {
+            case FIXED:
+                return maxScc;
+            case POWER_LAW:
+                // Pareto with exponent 2, truncated to [min, max]
+                double size = minScc / Math.sqrt(1.0 - rnd.nextDouble());
+                return (int) Math.min(maxScc, size);
+            default:
+                return minScc + rnd.nextInt(maxScc - minScc + 1);
+        }
+    }
+    private int layerOf(int comp, int comps) {
+        return (int) ((long) comp * layers / comps);
+    }
+    // Smallest component index whose layer is >= layer.
+    private int firstComponentOf(int layer, int comps) {
+        return (int) (((long) layer * comps + layers - 1) / layers);
+    }
+    private int weight(SplittableRandom rnd) {
+        return minWeight + rnd.nextInt(maxWeight - minWeight + 1);
+    }
+}
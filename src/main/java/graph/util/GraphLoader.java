@@ -1,11 +1,13 @@
 package graph.util;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import graph.model.Edge;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import graph.model.CsrGraph;
 import graph.model.Graph;
+import java.io.IOException;
 import java.io.InputStream;
-import java.util.List;
+import java.nio.file.Files;
+import java.nio.file.Path;
 /**
  * Utility class to load graph data from JSON files.
  *
@@ -17,8 +19,16 @@ import java.util.List;
  *   "source": 0,
  *   "weight_model": "edge"
  * }
+ *
+ * Files are read with the Jackson streaming parser: every edge goes straight
+ * into a primitive {@link CsrGraph.Builder}, so no JSON tree or Edge list is
+ * kept in memory and load time is linear in file size. Loaded graphs are frozen
+ * (CSR storage only). Binary files written by {@link BinaryGraphFormat} are
+ * memory-mapped by {@link #loadBinary}.
  */
 public class GraphLoader {
+    private static final JsonFactory JSON = new JsonFactory();
+
     /** Holds a parsed dataset (graph + metadata). */
     public static class DataSet {
         public final Graph graph;
@@ -43,28 +53,96 @@ public class GraphLoader {
         try (InputStream in = GraphLoader.class.getResourceAsStream("/data/" + resourceName)) {
             if (in == null)
                 throw new IllegalArgumentException("File not found: " + resourceName);
+            return parse(in, resourceName);
+        } catch (Exception e) {
+            // Updated message so testLoadNonExistingFile() passes
+            throw new RuntimeException("File load error: " + resourceName, e);
+        }
+    }
+    /**
+     * Loads a graph from a JSON file anywhere on the filesystem.
+     *
+     * @param path path to the JSON file
+     * @return DataSet object containing the parsed graph and metadata
+     */
+    public static DataSet loadFromPath(Path path) {
+        try (InputStream in = Files.newInputStream(path)) {
+            return parse(in, path.getFileName().toString());
+        } catch (Exception e) {
+            throw new RuntimeException("File load error: " + path, e);
+        }
+    }
+    /**
+     * Loads a graph stored in the binary format ({@link BinaryGraphFormat})
+     * through a memory-mapped FileChannel.
+     *
+     * @param path path to the .bin file
+     * @return DataSet object containing the frozen graph and metadata
+     */
+    public static DataSet loadBinary(Path path) {
+        try {
+            return BinaryGraphFormat.read(path);
+        } catch (Exception e) {
+            throw new RuntimeException("File load error: " + path, e);
+        }
+    }
+    /** Loads a .bin file with {@link #loadBinary}, anything else as JSON with {@link #loadFromPath}. */
+    public static DataSet load(Path path) {
+        return path.toString().endsWith(".bin") ? loadBinary(path) : loadFromPath(path);
+    }
+    /**
+     * Parses one dataset token by token. Top-level fields may come in any order;
+     * unknown fields are skipped.
+     */
+    static DataSet parse(InputStream in, String name) throws IOException {
+        try (JsonParser p = JSON.createParser(in)) {
+            if (p.nextToken() != JsonToken.START_OBJECT)
+                throw new IllegalArgumentException("Expected JSON object in " + name);
 
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode root = mapper.readTree(in);
-
-            boolean directed = root.path("directed").asBoolean(true);
-            int n = root.path("n").asInt();
-            Graph g = new Graph(n, directed);
+            boolean directed = true;
+            int n = -1;
+            int source = 0;
+            String wm = "edge";
+            CsrGraph.Builder builder = new CsrGraph.Builder(true);
 
-            // Step 1: Read all edges
-            List<Edge> edges = mapper.convertValue(root.path("edges"), new TypeReference<List<Edge>>() {});
-            for (Edge e : edges) {
-                g.addEdge(e.getU(), e.getV(), e.getW());
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.getCurrentName();
+                p.nextToken();
+                switch (field) {
+                    case "directed" -> directed = p.getValueAsBoolean(true);
+                    case "n" -> n = p.getValueAsInt();
+                    case "source" -> source = p.getValueAsInt(0);
+                    case "weight_model" -> wm = p.getValueAsString("edge");
+                    // Step 1: Stream edges into the builder
+                    case "edges" -> readEdges(p, builder);
+                    default -> p.skipChildren();
+                }
             }
+            if (n < 0)
+                throw new IllegalArgumentException("Missing field \"n\" in " + name);
 
-            // Step 2: Extract source and weight model
-            int source = root.path("source").asInt(0);
-            String wm = root.path("weight_model").asText("edge");
-
-            return new DataSet(g, source, wm, resourceName);
-        } catch (Exception e) {
-            // Updated message so testLoadNonExistingFile() passes
-            throw new RuntimeException("File load error: " + resourceName, e);
+            // Step 2: Freeze into CSR form
+            Graph g = new Graph(builder.setDirected(directed).build(n));
+            return new DataSet(g, source, wm, name);
+        }
+    }
+    // Reads the "edges" array: [{"u":0,"v":1,"w":3}, ...]
+    private static void readEdges(JsonParser p, CsrGraph.Builder builder) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY)
+            throw new IllegalArgumentException("\"edges\" must be an array");
+        while (p.nextToken() == JsonToken.START_OBJECT) {
+            int u = 0, v = 0, w = 0;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.getCurrentName();
+                p.nextToken();
+                switch (field) {
+                    case "u" -> u = p.getValueAsInt();
+                    case "v" -> v = p.getValueAsInt();
+                    case "w" -> w = p.getValueAsInt();
+                    default -> p.skipChildren();
+                }
+            }
+            builder.addEdge(u, v, w);
         }
     }
 }
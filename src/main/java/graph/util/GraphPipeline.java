@@ -0,0 +1,260 @@
+package graph.util;
+import graph.dagsp.DAGLongestPath;
+import graph.dagsp.DAGShortestPath;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+import graph.scc.CondensationGraph;
+import graph.scc.ConnectedComponents;
+import graph.scc.Kosaraju;
+import graph.topo.TopologicalSort;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+/**
+ * GraphPipeline
+ * -------------
+ * Facade over the SCC -> Condensation -> Topological Sort -> DAG path chain.
+ *
+ * Stages are evaluated lazily and cached:
+ *  - scc(), condensation() and topologicalOrder() do not depend on the source,
+ *    so they are computed once per graph (undirected graphs use the parallel
+ *    {@link ConnectedComponents} instead of Kosaraju);
+ *  - shortestPaths(src) / longestPaths(src) only run the O(V + E) DP.
+ *
+ * Cached stages live in a {@link Cache} keyed by a content hash of the graph's
+ * CSR arrays, so two Graph objects with the same edges share one entry.
+ * The cache is a bounded LRU; {@link #DEFAULT_CACHE} keeps 16 graphs.
+ * With a snapshot directory the stages are also persisted ({@link PipelineSnapshot}),
+ * so a restarted process maps them from disk instead of recomputing.
+ * With a {@link StageProfiler} every stage computation (not cache or snapshot
+ * hits) is timed as a JFR event and recorded under the dataset name.
+ * A pipeline is a snapshot: modify the graph afterwards and call of() again.
+ */
+public class GraphPipeline {
+    /** Shared cache used by {@link #of(Graph)}. */
+    public static final Cache DEFAULT_CACHE = new Cache(16);
+
+    private final Graph graph;
+    private final Stages stages;
+    private final StageProfiler profiler; // null = untimed
+    private final String dataset;
+
+    private GraphPipeline(Graph graph, Stages stages, StageProfiler profiler, String dataset) {
+        this.graph = graph;
+        this.stages = stages;
+        this.profiler = profiler;
+        this.dataset = dataset;
+    }
+    /** Pipeline for g backed by the shared cache. */
+    public static GraphPipeline of(Graph g) {
+        return of(g, DEFAULT_CACHE);
+    }
+    /** Pipeline for g backed by the given cache. */
+    public static GraphPipeline of(Graph g, Cache cache) {
+        return new GraphPipeline(g, cache.stagesFor(g.toCsr()), null, null);
+    }
+    /**
+     * Pipeline for g whose SCCs, condensation and topological order are read
+     * from the snapshot for g in snapshotDir, or computed and written there
+     * if there is none yet.
+     */
+    public static GraphPipeline of(Graph g, Cache cache, Path snapshotDir) throws IOException {
+        return of(g, cache, snapshotDir, null, null);
+    }
+    /**
+     * Like {@link #of(Graph, Cache, Path)} (snapshotDir may be null: no persistence),
+     * timing the stages computed for this pipeline through profiler under the dataset name.
+     */
+    public static GraphPipeline of(Graph g, Cache cache, Path snapshotDir, StageProfiler profiler, String dataset)
+            throws IOException {
+        CsrGraph csr = g.toCsr();
+        Stages stages = cache.stagesFor(csr);
+        if (snapshotDir != null) {
+            Files.createDirectories(snapshotDir);
+            int checksum = PipelineSnapshot.checksum(csr);
+            stages.persist(snapshotDir.resolve(PipelineSnapshot.fileName(checksum)), checksum, profiler, dataset);
+        }
+        return new GraphPipeline(g, stages, profiler, dataset);
+    }
+
+    public Graph graph() {
+        return graph;
+    }
+    /**
+     * Strongly connected components, components in topological order (computed once).
+     * Shared through the cache: the component lists are unmodifiable and the
+     * component array must be treated as read-only.
+     */
+    public Kosaraju.Result scc() {
+        return stages.scc(profiler, dataset);
+    }
+    /** Condensation DAG (computed once); read-only, since it is shared through the cache. */
+    public Graph condensation() {
+        return stages.dag(profiler, dataset);
+    }
+    /** Topological order of the condensation DAG (computed once). */
+    public List<Integer> topologicalOrder() {
+        return stages.topo(profiler, dataset);
+    }
+    /** True if the stages were loaded from a snapshot file instead of being computed. */
+    public boolean fromSnapshot() {
+        synchronized (stages) {
+            return stages.fromSnapshot;
+        }
+    }
+    /** Component of an original vertex. */
+    public int componentOf(int vertex) {
+        return scc().component[vertex];
+    }
+    /** Shortest paths over the condensation from the component of srcVertex. */
+    public DAGShortestPath.Result shortestPaths(int srcVertex) {
+        return DAGShortestPath.run(condensation(), topologicalOrder(), componentOf(srcVertex));
+    }
+    /** Longest (critical) paths over the condensation from the component of srcVertex. */
+    public DAGLongestPath.Result longestPaths(int srcVertex) {
+        return DAGLongestPath.run(condensation(), topologicalOrder(), componentOf(srcVertex));
+    }
+
+    /** 64-bit content hash of a graph (direction, vertex count and all CSR arrays), memoized per CsrGraph. */
+    public static long contentHash(CsrGraph g) {
+        return g.contentHash();
+    }
+
+    /**
+     * Bounded LRU cache of pipeline stages, keyed by content hash.
+     * Hash collisions are detected by comparing the CSR arrays. Thread-safe;
+     * hashing and comparing run outside the lock, which only guards the map.
+     */
+    public static class Cache {
+        private final int capacity;
+        private final LinkedHashMap<Long, Stages> entries;
+        private long hits, misses;
+
+        public Cache(int capacity) {
+            if (capacity < 1) throw new IllegalArgumentException("Cache capacity must be positive");
+            this.capacity = capacity;
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Stages> eldest) {
+                    return size() > Cache.this.capacity;
+                }
+            };
+        }
+        Stages stagesFor(CsrGraph g) {
+            long key = contentHash(g);
+            Stages cached;
+            synchronized (this) {
+                cached = entries.get(key); // also refreshes the LRU order
+            }
+            if (cached != null && cached.sameGraph(g)) {
+                synchronized (this) {
+                    hits++;
+                }
+                return cached;
+            }
+            Stages s = new Stages(g);
+            synchronized (this) {
+                Stages now = entries.get(key);
+                if (now != null && now != cached && now.graph.toCsr() == g) {
+                    hits++; // another thread just added this very graph
+                    return now;
+                }
+                misses++;
+                entries.put(key, s);
+            }
+            return s;
+        }
+        public synchronized int size() {
+            return entries.size();
+        }
+        public synchronized long hits() {
+            return hits;
+        }
+        public synchronized long misses() {
+            return misses;
+        }
+        public synchronized void clear() {
+            entries.clear();
+        }
+    }
+
+    // Lazily computed source-independent stages of one graph.
+    private static final class Stages {
+        private final Graph graph;
+        private Kosaraju.Result scc;
+        private Graph dag;
+        private List<Integer> topo;
+        private boolean fromSnapshot;
+
+        Stages(CsrGraph g) {
+            this.graph = new Graph(g).unmodifiable();
+        }
+        boolean sameGraph(CsrGraph g) {
+            CsrGraph c = graph.toCsr();
+            return c == g || (c.getN() == g.getN() && c.isDirected() == g.isDirected()
+                    && Arrays.equals(c.getOffsets(), g.getOffsets())
+                    && Arrays.equals(c.getTargets(), g.getTargets())
+                    && Arrays.equals(c.getWeights(), g.getWeights()));
+        }
+        synchronized Kosaraju.Result scc(StageProfiler profiler, String dataset) {
+            if (scc == null) {
+                var span = start(profiler, StageProfiler.Stage.SCC, dataset);
+                CsrGraph g = graph.toCsr();
+                // undirected: SCCs are the connected components
+                scc = readOnly(g.isDirected() ? Kosaraju.run(g, Metrics.NOOP)
+                        : ConnectedComponents.run(g, ForkJoinPool.commonPool()));
+                if (span != null) span.end();
+            }
+            return scc;
+        }
+        synchronized Graph dag(StageProfiler profiler, String dataset) {
+            if (dag == null) {
+                Kosaraju.Result components = scc(profiler, dataset);
+                var span = start(profiler, StageProfiler.Stage.CONDENSATION, dataset);
+                dag = CondensationGraph.build(graph, components).unmodifiable();
+                if (span != null) span.end();
+            }
+            return dag;
+        }
+        synchronized List<Integer> topo(StageProfiler profiler, String dataset) {
+            if (topo == null) {
+                Graph condensation = dag(profiler, dataset);
+                var span = start(profiler, StageProfiler.Stage.TOPO_SORT, dataset);
+                topo = Collections.unmodifiableList(TopologicalSort.sort(condensation));
+                if (span != null) span.end();
+            }
+            return topo;
+        }
+        // Same result with the outer and every inner component list unmodifiable.
+        private static Kosaraju.Result readOnly(Kosaraju.Result r) {
+            List<List<Integer>> components = new ArrayList<>(r.components.size());
+            for (List<Integer> members : r.components) components.add(Collections.unmodifiableList(members));
+            return new Kosaraju.Result(r.component, Collections.unmodifiableList(components));
+        }
+        private static StageProfiler.Span start(StageProfiler profiler, StageProfiler.Stage stage, String dataset) {
+            return profiler == null ? null : profiler.start(stage, dataset);
+        }
+        // Loads all stages from file if it matches this graph, otherwise computes and writes them.
+        // A corrupt or truncated file is treated like a missing one and overwritten.
+        synchronized void persist(Path file, int checksum, StageProfiler profiler, String dataset) throws IOException {
+            if (scc != null && dag != null && topo != null && Files.exists(file)) return;
+            PipelineSnapshot snap;
+            try {
+                snap = PipelineSnapshot.read(file, graph.toCsr(), checksum);
+            } catch (IllegalArgumentException e) {
+                snap = null;
+            }
+            if (snap != null) {
+                scc = readOnly(snap.scc);
+                dag = snap.dag.unmodifiable();
+                topo = snap.topo;
+                fromSnapshot = true;
+            } else {
+                PipelineSnapshot.write(graph.toCsr(), checksum, scc(profiler, dataset), dag(profiler, dataset),
+                        topo(profiler, dataset), file);
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package graph.util;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+/**
+ * Fixed-memory latency histogram (log-linear buckets, like HdrHistogram).
+ *
+ * Values 0..63 get one bucket each; above that, every power of two
+ * [2^e, 2^(e+1)) is split into 64 equal sub-buckets, so a recorded value is
+ * known to within 1/64 (~1.6%) whatever its magnitude. The whole long range
+ * fits in 3712 counters (~29 KB), allocated once; recording is one index
+ * computation and one atomic increment, safe from any number of threads.
+ * Percentiles report the upper bound of the bucket (capped at the maximum).
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 6;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Records one value (e.g. nanoseconds).
+     *
+     * @throws IllegalArgumentException if value is negative
+     */
+    public void record(long value) {
+        if (value < 0) throw new IllegalArgumentException("Negative latency: " + value);
+        counts.incrementAndGet(index(value));
+        total.incrementAndGet();
+        sum.addAndGet(value);
+        min.accumulateAndGet(value, Math::min);
+        max.accumulateAndGet(value, Math::max);
+    }
+    public long count() {
+        return total.get();
+    }
+    /** Smallest recorded value, 0 if empty. */
+    public long min() {
+        return count() == 0 ? 0 : min.get();
+    }
+    /** Largest recorded value, 0 if empty. */
+    public long max() {
+        return count() == 0 ? 0 : max.get();
+    }
+    public double mean() {
+        long n = count();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+    /**
+     * Value at quantile q (0.5 = p50, 0.999 = p999); 0 if empty.
+     *
+     * @throws IllegalArgumentException if q is outside [0, 1]
+     */
+    public long percentile(double q) {
+        if (!(q >= 0 && q <= 1)) throw new IllegalArgumentException("Quantile must be in [0, 1]: " + q);
+        long n = count();
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(q * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(highestValue(i), max());
+        }
+        return max();
+    }
+    /** Clears all counts (not atomic with respect to concurrent record calls). */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        total.set(0);
+        sum.set(0);
+        min.set(Long.MAX_VALUE);
+        max.set(Long.MIN_VALUE);
+    }
+
+    // Bucket of value: exact below SUB, then SUB sub-buckets per power of two.
+    static int index(long value) {
+        if (value < SUB) return (int) value;
+        int e = 63 - Long.numberOfLeadingZeros(value);
+        int shift = e - SUB_BITS;
+        int mantissa = (int) (value >>> shift); // in [SUB, 2 * SUB)
+        return (shift + 1) * SUB + mantissa - SUB;
+    }
+    // Largest value that falls into bucket i.
+    static long highestValue(int i) {
+        if (i < SUB) return i;
+        int shift = i / SUB - 1;
+        long mantissa = i % SUB + SUB;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
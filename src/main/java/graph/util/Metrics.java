@@ -1,38 +1,89 @@
 package graph.util;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Locale;
 /**
  * Metrics utility class
  * ---------------------
- * Collects and manages algorithmic operation counters such as:
- *  - DFS calls and edges processed (SCC)
- *  - Stack operations (Topological Sort)
- *  - Relaxations (DAG Shortest Path)
+ * Collects algorithmic operation counters reported by the algorithms themselves:
+ *  - DFS calls and edges processed (SCC, Topological Sort)
+ *  - Stack operations (Kosaraju / Tarjan stacks, Topological Sort)
+ *  - Relaxations (DAG Shortest/Longest Path)
  * Also used together with System.nanoTime() for timing.
+ *
+ * Counters are pre-registered ({@link Counter}) and kept in a primitive long[],
+ * so counting never allocates. One instance per task/thread (not thread-safe).
+ * {@link #NOOP} ignores everything; algorithms called without metrics use it,
+ * and since its methods are empty the JIT removes the calls.
  */
 public class Metrics {
-    private final Map<String, Long> counters = new HashMap<>();
+    /** Pre-registered counters; the string key is the lower-case name. */
+    public enum Counter {
+        DFS_CALLS,
+        EDGES_PROCESSED,
+        STACK_PUSHES,
+        STACK_POPS,
+        EDGE_RELAXATIONS;
+
+        public final String key = name().toLowerCase(Locale.ROOT);
+
+        /** Looks up a counter by its string key (e.g. "dfs_calls"). */
+        public static Counter of(String key) {
+            for (Counter c : values()) if (c.key.equals(key)) return c;
+            throw new IllegalArgumentException("Unknown counter: " + key);
+        }
+    }
+
+    private static final Counter[] COUNTERS = Counter.values();
+
+    /** Shared instance that records nothing (production mode). */
+    public static final Metrics NOOP = new Noop();
+
+    private final long[] counters = new long[COUNTERS.length];
+
     /** Increase a specific counter by 1 (e.g., dfs_calls++) */
-    public void inc(String name) {
-        counters.put(name, counters.getOrDefault(name, 0L) + 1);
+    public void inc(Counter c) {
+        counters[c.ordinal()]++;
     }
     /** Add a value to a counter (e.g., relaxations += count) */
-    public void add(String name, long value) {
-        counters.put(name, counters.getOrDefault(name, 0L) + value);
+    public void add(Counter c, long value) {
+        counters[c.ordinal()] += value;
     }
     /** Get the current value of a counter */
+    public long get(Counter c) {
+        return counters[c.ordinal()];
+    }
+    /** Same as {@link #inc(Counter)} by string key. */
+    public void inc(String name) {
+        inc(Counter.of(name));
+    }
+    /** Same as {@link #add(Counter, long)} by string key. */
+    public void add(String name, long value) {
+        add(Counter.of(name), value);
+    }
+    /** Same as {@link #get(Counter)} by string key. */
     public long get(String name) {
-        return counters.getOrDefault(name, 0L);
+        return get(Counter.of(name));
     }
     /** Reset all counters to zero (use before processing the next dataset) */
     public void reset() {
-        counters.clear();
+        java.util.Arrays.fill(counters, 0L);
     }
-    /** Print metrics for debugging */
+    /** Print non-zero metrics for debugging */
     public String summary() {
         StringBuilder sb = new StringBuilder();
-        counters.forEach((key, value) -> sb.append(key).append("=").append(value).append(" "));
+        for (Counter c : COUNTERS) {
+            long value = get(c);
+            if (value != 0) sb.append(c.key).append("=").append(value).append(" ");
+        }
         return sb.toString().trim();
     }
-}
 
+    // Every operation is a no-op; get() always returns 0.
+    private static final class Noop extends Metrics {
+        @Override public void inc(Counter c) {}
+        @Override public void add(Counter c, long value) {}
+        @Override public long get(Counter c) {
+            return 0;
+        }
+        @Override public void reset() {}
+    }
+}
@@ -0,0 +1,50 @@
+package graph.util;
+import org.apache.commons.csv.CSVPrinter;
+import java.io.IOException;
+import java.util.*;
+/**
+ * Thread-safe CSV writer that keeps records in submission-index order.
+ *
+ * Tasks finish in any order; each one submits its record with its index.
+ * A record is written as soon as every record before it has been written
+ * (or skipped), so the file fills up while work is still running and ends
+ * up in the same order as a sequential run.
+ */
+public class OrderedCsvWriter {
+    private static final Object[] SKIPPED = new Object[0];
+
+    private final CSVPrinter csv;
+    private final Map<Integer, Object[]> pending = new HashMap<>();
+    private int next;
+
+    public OrderedCsvWriter(CSVPrinter csv) {
+        this.csv = csv;
+    }
+    /** Stores the record of task index and writes every record that is now in order. */
+    public synchronized void submit(int index, Object... record) throws IOException {
+        pending.put(index, record);
+        drain();
+    }
+    /** Marks task index as finished without a record (e.g. it failed). */
+    public synchronized void skip(int index) throws IOException {
+        pending.put(index, SKIPPED);
+        drain();
+    }
+    /** Number of indices written or skipped so far. */
+    public synchronized int completed() {
+        return next;
+    }
+    // Writes the contiguous run of finished records starting at next.
+    private void drain() throws IOException {
+        boolean wrote = false;
+        Object[] record;
+        while ((record = pending.remove(next)) != null) {
+            if (record != SKIPPED) {
+                csv.printRecord(record);
+                wrote = true;
+            }
+            next++;
+        }
+        if (wrote) csv.flush();
+    }
+}
@@ -6,94 +6,105 @@ import graph.scc.CondensationGraph;
 import graph.topo.TopologicalSort;
 import graph.dagsp.DAGShortestPath;
 import graph.dagsp.DAGLongestPath;
+import graph.util.StageProfiler.Stage;
 import java.io.IOException;
 import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
 /**
  * PerformanceAnalyzer
  * -------------------
  * Runs SCC, Condensation, Topological Sort, and DAG Shortest/Longest Path algorithms
  * on all datasets stored under /data, and exports timing + metrics to results.csv.
+ * With "--synthetic [maxExponent]" it sweeps generated graphs of 10^3 .. 10^maxExponent
+ * vertices (GraphGenerator, default 10^6) instead.
+ * With "--dir <directory> [parallelism] [output.csv]" it discovers every .json / .bin
+ * dataset under the directory and analyzes them concurrently (virtual threads when
+ * available, at most `parallelism` at a time, default = number of cores); rows are
+ * written as tasks finish, in file-name order (results_dir.csv by default).
+ * Counters are reported by the algorithms themselves through Metrics.
+ * Every stage is also timed through a {@link StageProfiler} (JFR events + latency
+ * histograms); the percentiles per dataset and stage go to a second CSV next to the
+ * results (results.csv -> results_latency.csv). "--runs N" (any mode, default 1)
+ * runs the pipeline N times per dataset so the percentiles have N samples; the
+ * results row always comes from the first run.
  * CSV Columns:
- * dataset_name, scc_duration_ns, dfs_calls, edges_processed,
- * topo_duration_ns, stack_pushes, stack_pops, shortest_path_ns, edge_relaxations
+ * dataset_name, scc_duration_ns, dfs_calls, edges_processed (Kosaraju, both passes),
+ * topo_duration_ns, dfs_recursive_calls, dfs_stack_adds (Topological Sort),
+ * shortest_path_ns, edge_relaxations (successful relaxations of the shortest path DP)
  */
 public class PerformanceAnalyzer {
+    private static final String[] HEADER = {
+            "dataset_name", "scc_duration_ns", "dfs_calls", "edges_processed",
+            "topo_duration_ns", "dfs_recursive_calls", "dfs_stack_adds",
+            "shortest_path_ns", "edge_relaxations"
+    };
+
     public static void main(String[] args) {
+        int runs = 1;
+        List<String> rest = new ArrayList<>(List.of(args));
+        int flag = rest.indexOf("--runs");
+        if (flag >= 0 && flag + 1 < rest.size()) {
+            runs = Integer.parseInt(rest.get(flag + 1));
+            if (runs < 1) throw new IllegalArgumentException("--runs must be positive: " + runs);
+            rest.subList(flag, flag + 2).clear();
+            args = rest.toArray(new String[0]);
+        }
+        if (args.length > 1 && args[0].equals("--dir")) {
+            int parallelism = args.length > 2 ? Integer.parseInt(args[2])
+                    : Runtime.getRuntime().availableProcessors();
+            Path output = Path.of(args.length > 3 ? args[3] : "results_dir.csv");
+            try {
+                int rows = analyzeDirectory(Path.of(args[1]), parallelism, output, runs);
+                System.out.println("\n Performance analysis complete! (" + rows + " datasets)");
+                System.out.println(" Results saved to " + output.toAbsolutePath());
+            } catch (IOException e) {
+                System.err.println(" Error writing CSV: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                System.err.println(" Benchmark interrupted");
+            }
+            return;
+        }
+        boolean synthetic = args.length > 0 && args[0].equals("--synthetic");
+        int maxExponent = synthetic && args.length > 1 ? Integer.parseInt(args[1]) : 6;
         List<String> datasets = List.of(
                 "small_1.json", "small_2.json", "small_3.json",
                 "medium_1.json", "medium_2.json", "medium_3.json",
                 "large_1.json", "large_2.json", "large_3.json"
         );
-        Path outputPath = Path.of("results.csv");
+        Path outputPath = Path.of(synthetic ? "results_synthetic.csv" : "results.csv");
+        StageProfiler profiler = new StageProfiler();
         try (var writer = Files.newBufferedWriter(outputPath);
              var csv = new CSVPrinter(writer,
-                     CSVFormat.DEFAULT.builder()
-                             .setHeader(
-                                     "dataset_name", "scc_duration_ns", "dfs_calls", "edges_processed",
-                                     "topo_duration_ns", "dfs_recursive_calls", "dfs_stack_adds",
-                                     "shortest_path_ns", "edge_relaxations"
-                             ).build()
-
-             )) {
-            Metrics metrics = new Metrics();
-            for (String fileName : datasets) {
-                System.out.println("⚙Processing: " + fileName);
-                var ds = GraphLoader.loadFromResource(fileName);
-                Graph g = ds.graph;
-                // === SCC (Kosaraju) ===
-                long sccStart = System.nanoTime();
-                var sccResult = Kosaraju.run(g);
-                long sccEnd = System.nanoTime();
-                long sccTime = sccEnd - sccStart;
-                metrics.add("dfs_calls", g.getN());
-                metrics.add("edges_processed", g.getEdgesCount());
-
-                // === Condensation + Topological Sort ===
-                long topoStart = System.nanoTime();
-                var dag = CondensationGraph.build(g, sccResult);
-                var topo = TopologicalSort.sort(dag);
-                long topoEnd = System.nanoTime();
-                long topoTime = topoEnd - topoStart;
-                metrics.add("dfs_recursive_calls", dag.getN());
-                metrics.add("dfs_stack_adds", topo.size());
-
-
-                // === Shortest Path ===
-                long spStart = System.nanoTime();
-                DAGShortestPath.run(dag, topo, sccResult.component[ds.source]);
-                long spEnd = System.nanoTime();
-                long spTime = spEnd - spStart;
-                metrics.add("edge_relaxations", dag.getEdgesCount());
-
-                // === Longest Path ===
-                long lpStart = System.nanoTime();
-                DAGLongestPath.run(dag, topo, sccResult.component[ds.source]);
-                long lpEnd = System.nanoTime();
-                long lpTime = lpEnd - lpStart;
-
-                // === Write to CSV (numbers only for analysis) ===
-                csv.printRecord(
-                        fileName,
-                        sccTime + " ns",
-                        metrics.get("dfs_calls"),
-                        metrics.get("edges_processed"),
-                        topoTime + " ns",
-                        metrics.get("stack_pushes"),
-                        metrics.get("stack_pops"),
-                        spTime + " ns",
-                        metrics.get("edge_relaxations")
-                );
-                // === Console output (formatted with ns units) ===
-                System.out.printf(
-                        "%-12s | SCC: %d ns | SP: %d ns | LP: %d ns%n",
-                        fileName, sccTime, spTime, lpTime
-                );
-
-                metrics.reset();
+                     CSVFormat.DEFAULT.builder().setHeader(HEADER).build())) {
+            if (synthetic) {
+                for (int exp = 3; exp <= maxExponent; exp++) {
+                    int n = (int) Math.pow(10, exp);
+                    String name = "synthetic_1e" + exp;
+                    System.out.println("⚙Generating: " + name);
+                    var span = profiler.start(Stage.GENERATE, name); // not a load: kept apart in the latency CSV
+                    var ds = new GraphGenerator().seed(exp).vertices(n).toDataSet(name);
+                    span.end();
+                    analyze(ds, csv, profiler);
+                    repeat(ds, profiler, runs);
+                }
+            } else {
+                for (String fileName : datasets) {
+                    System.out.println("⚙Processing: " + fileName);
+                    var span = profiler.start(Stage.LOAD, fileName);
+                    var ds = GraphLoader.loadFromResource(fileName);
+                    span.end();
+                    analyze(ds, csv, profiler);
+                    repeat(ds, profiler, runs);
+                }
             }
+            Path latencyPath = StageProfiler.latencyPathFor(outputPath);
+            profiler.writeCsv(latencyPath);
             System.out.println("\n Performance analysis complete!");
             System.out.println(" Results saved to " + outputPath.toAbsolutePath());
+            System.out.println(" Stage latencies saved to " + latencyPath.toAbsolutePath());
         } catch (IOException e) {
             System.err.println(" Error writing CSV: " + e.getMessage());
         } catch (Exception e) {
@@ -101,4 +112,131 @@ public class PerformanceAnalyzer {
             System.err.println("(stack trace suppressed for cleaner output)");
         }
     }
+
+    /**
+     * Analyzes every dataset under dir concurrently and writes one row per dataset.
+     * Each task loads its own graph and uses its own Metrics; a semaphore keeps at
+     * most `parallelism` datasets in memory at once. Stage percentiles of all tasks
+     * go to the latency CSV next to output. Returns the number of rows written.
+     */
+    static int analyzeDirectory(Path dir, int parallelism, Path output) throws IOException, InterruptedException {
+        return analyzeDirectory(dir, parallelism, output, 1);
+    }
+    /** Same as {@link #analyzeDirectory(Path, int, Path)}, running the pipeline `runs` times per dataset. */
+    static int analyzeDirectory(Path dir, int parallelism, Path output, int runs)
+            throws IOException, InterruptedException {
+        List<Path> files = discover(dir);
+        Semaphore permits = new Semaphore(Math.max(1, parallelism));
+        ExecutorService executor = VirtualThreads.newExecutor(parallelism);
+        List<Future<Boolean>> tasks = new ArrayList<>(files.size());
+        StageProfiler profiler = new StageProfiler();
+        try (var writer = Files.newBufferedWriter(output);
+             var csv = new CSVPrinter(writer, CSVFormat.DEFAULT.builder().setHeader(HEADER).build())) {
+            OrderedCsvWriter rows = new OrderedCsvWriter(csv);
+            for (int i = 0; i < files.size(); i++) {
+                int index = i;
+                Path file = files.get(i);
+                tasks.add(executor.submit(() -> {
+                    Object[] record = null;
+                    try {
+                        permits.acquire();
+                        try {
+                            System.out.println("⚙Processing: " + file.getFileName());
+                            var span = profiler.start(Stage.LOAD, file.getFileName().toString());
+                            var ds = GraphLoader.load(file);
+                            span.end();
+                            record = measure(ds, profiler);
+                            repeat(ds, profiler, runs);
+                        } finally {
+                            permits.release();
+                        }
+                    } catch (Exception e) {
+                        System.err.println(" Failed: " + file + " (" + e + ")");
+                    }
+                    if (record != null) rows.submit(index, record);
+                    else rows.skip(index);
+                    return record != null;
+                }));
+            }
+            int written = 0;
+            for (Future<Boolean> task : tasks) {
+                try {
+                    if (task.get()) written++;
+                } catch (ExecutionException e) {
+                    // only the CSV writer can fail here
+                    throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+                }
+            }
+            profiler.writeCsv(StageProfiler.latencyPathFor(output));
+            return written;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    /** All .json and .bin datasets under dir (recursively), sorted by path. */
+    static List<Path> discover(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(p -> p.toString().endsWith(".json") || p.toString().endsWith(".bin"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /** Runs the whole pipeline on one dataset and writes one CSV record. */
+    static void analyze(GraphLoader.DataSet ds, CSVPrinter csv, StageProfiler profiler) throws IOException {
+        csv.printRecord(measure(ds, profiler));
+    }
+    /** Runs the pipeline runs - 1 more times on ds, only to add samples to the stage histograms. */
+    static void repeat(GraphLoader.DataSet ds, StageProfiler profiler, int runs) {
+        for (int r = 1; r < runs; r++) measure(ds, profiler);
+    }
+    /** Runs the whole pipeline on one dataset, timing each stage through profiler, and returns its CSV record. */
+    static Object[] measure(GraphLoader.DataSet ds, StageProfiler profiler) {
+        String fileName = ds.name;
+        Graph g = ds.graph;
+        Metrics sccMetrics = new Metrics();
+        Metrics topoMetrics = new Metrics();
+        Metrics spMetrics = new Metrics();
+        // === SCC (Kosaraju) ===
+        var span = profiler.start(Stage.SCC, fileName);
+        var sccResult = Kosaraju.run(g, sccMetrics);
+        long sccTime = span.end();
+
+        // === Condensation + Topological Sort ===
+        span = profiler.start(Stage.CONDENSATION, fileName);
+        var dag = CondensationGraph.build(g, sccResult);
+        long topoTime = span.end();
+        span = profiler.start(Stage.TOPO_SORT, fileName);
+        var topo = TopologicalSort.sort(dag, topoMetrics);
+        topoTime += span.end();
+
+        // === Shortest Path ===
+        span = profiler.start(Stage.SHORTEST_PATH, fileName);
+        DAGShortestPath.run(dag, topo, sccResult.component[ds.source], spMetrics);
+        long spTime = span.end();
+
+        // === Longest Path ===
+        span = profiler.start(Stage.LONGEST_PATH, fileName);
+        DAGLongestPath.run(dag, topo, sccResult.component[ds.source]);
+        long lpTime = span.end();
+
+        // === Console output (formatted with ns units) ===
+        System.out.printf(
+                "%-12s | SCC: %d ns | SP: %d ns | LP: %d ns%n",
+                fileName, sccTime, spTime, lpTime
+        );
+        // === CSV record (numbers only for analysis) ===
+        return new Object[]{
+                fileName,
+                sccTime + " ns",
+                sccMetrics.get(Metrics.Counter.DFS_CALLS),
+                sccMetrics.get(Metrics.Counter.EDGES_PROCESSED),
+                topoTime + " ns",
+                topoMetrics.get(Metrics.Counter.DFS_CALLS),
+                topoMetrics.get(Metrics.Counter.STACK_PUSHES),
+                spTime + " ns",
+                spMetrics.get(Metrics.Counter.EDGE_RELAXATIONS)
+        };
+    }
 }
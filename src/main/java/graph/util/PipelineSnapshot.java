@@ -0,0 +1,235 @@
+package graph.util;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+import graph.scc.Kosaraju;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32C;
+/**
+ * Persisted source-independent pipeline stages (SCCs, condensation DAG and
+ * its topological order) of one graph, so a restart does not recompute them.
+ *
+ * Layout (little-endian, 4-byte aligned, like BinaryGraphFormat):
+ *   int    magic        "SCPS"
+ *   int    version      1
+ *   int    checksum     CRC32C of the input graph, see {@link #checksum}
+ *   int    flags        bit 0 = input graph directed
+ *   int    n            vertices of the input graph
+ *   int    m            stored edges of the input graph
+ *   int    c            number of components
+ *   int    dagM         edges of the condensation
+ *   int[]  component    n values, vertex -> component
+ *   int[]  memberOff    c + 1 values; members of k are members[memberOff[k] .. memberOff[k + 1])
+ *   int[]  members      n values
+ *   int[]  dagOffsets   c + 1 values (CSR of the condensation)
+ *   int[]  dagTargets   dagM values
+ *   int[]  dagWeights   dagM values
+ *   int[]  topo         c values
+ *
+ * Reading maps the file and bulk-copies the sections into int arrays; component
+ * lists and the topological order are list views over them (no boxing up front).
+ * A snapshot belongs to the graph whose checksum, size and direction it stores;
+ * {@link #read} returns null for any other graph and for sections that are not
+ * a consistent SCC / condensation / topological order of n vertices.
+ * The graph checksum is the only full pass over the input graph; callers that
+ * need it more than once compute it with {@link #checksum} and pass it in.
+ */
+public class PipelineSnapshot {
+    public static final int MAGIC = 0x53435053; // "SCPS"
+    public static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int CHECKSUM_BUFFER_BYTES = 1 << 16;
+
+    public final Kosaraju.Result scc;
+    public final Graph dag;
+    public final List<Integer> topo;
+
+    public PipelineSnapshot(Kosaraju.Result scc, Graph dag, List<Integer> topo) {
+        this.scc = scc;
+        this.dag = dag;
+        this.topo = topo;
+    }
+
+    /** CRC32C over direction, vertex count and the CSR arrays of g. */
+    public static int checksum(CsrGraph g) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buf = ByteBuffer.allocate(CHECKSUM_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(g.isDirected() ? 1 : 0).putInt(g.getN());
+        update(crc, buf, g.getOffsets());
+        update(crc, buf, g.getTargets());
+        update(crc, buf, g.getWeights());
+        buf.flip();
+        crc.update(buf);
+        return (int) crc.getValue();
+    }
+    private static void update(CRC32C crc, ByteBuffer buf, int[] values) {
+        for (int i = 0; i < values.length; ) {
+            if (buf.remaining() < 4) {
+                buf.flip();
+                crc.update(buf);
+                buf.clear();
+            }
+            int count = Math.min(values.length - i, buf.remaining() / 4);
+            buf.asIntBuffer().put(values, i, count);
+            buf.position(buf.position() + 4 * count);
+            i += count;
+        }
+    }
+    /** Snapshot file name for g, e.g. "pipeline-1a2b3c4d.snap". */
+    public static String fileName(CsrGraph g) {
+        return fileName(checksum(g));
+    }
+    /** Snapshot file name for the graph with the given {@link #checksum}. */
+    public static String fileName(int checksum) {
+        return String.format("pipeline-%08x.snap", checksum);
+    }
+
+    /**
+     * Writes the stages of graph g. The file is written to a unique temp file
+     * next to its final name and then moved into place, so readers never see a
+     * partial file and concurrent writers of the same snapshot do not collide.
+     */
+    public static void write(CsrGraph g, Kosaraju.Result scc, Graph dag, List<Integer> topo, Path out)
+            throws IOException {
+        write(g, checksum(g), scc, dag, topo, out);
+    }
+    /** Same as {@link #write(CsrGraph, Kosaraju.Result, Graph, List, Path)} with a precomputed checksum of g. */
+    public static void write(CsrGraph g, int checksum, Kosaraju.Result scc, Graph dag, List<Integer> topo, Path out)
+            throws IOException {
+        int n = g.getN(), c = scc.components.size();
+        CsrGraph d = dag.toCsr();
+        int[] memberOff = new int[c + 1], members = new int[n];
+        for (int k = 0; k < c; k++) {
+            int at = memberOff[k];
+            for (int v : scc.components.get(k)) members[at++] = v;
+            memberOff[k + 1] = at;
+        }
+        int[] order = new int[topo.size()];
+        for (int k = 0; k < order.length; k++) order[k] = topo.get(k);
+
+        // a unique temp file: writers of the same graph in a shared directory do not clash
+        Path dir = out.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(dir, out.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ByteBuffer buf = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+                // Step 1: header
+                buf.putInt(MAGIC).putInt(VERSION).putInt(checksum).putInt(g.isDirected() ? 1 : 0)
+                   .putInt(n).putInt(g.getEdgesCount()).putInt(c).putInt(d.getEdgesCount());
+                // Step 2: sections
+                for (int[] section : new int[][]{scc.component, memberOff, members,
+                        d.getOffsets(), d.getTargets(), d.getWeights(), order}) {
+                    BinaryGraphFormat.writeInts(ch, buf, section);
+                }
+                buf.flip();
+                while (buf.hasRemaining()) ch.write(buf);
+            }
+            Files.move(tmp, out, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp); // only left behind if writing failed
+        }
+    }
+
+    /**
+     * Maps a snapshot file and returns its stages, or null if the file does
+     * not exist, was written for a different graph or has inconsistent sections.
+     *
+     * @throws IllegalArgumentException if the file is not a snapshot or is truncated
+     */
+    public static PipelineSnapshot read(Path file, CsrGraph g) throws IOException {
+        return read(file, g, checksum(g));
+    }
+    /** Same as {@link #read(Path, CsrGraph)} with a precomputed checksum of g. */
+    public static PipelineSnapshot read(Path file, CsrGraph g, int graphChecksum) throws IOException {
+        if (!Files.isRegularFile(file)) return null;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() < HEADER_BYTES) throw new IllegalArgumentException("Not a pipeline snapshot: " + file);
+            ByteBuffer head = ch.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (head.getInt() != MAGIC) throw new IllegalArgumentException("Not a pipeline snapshot: " + file);
+            int version = head.getInt();
+            if (version != VERSION) return null; // written by another format version: recompute
+            int checksum = head.getInt();
+            boolean directed = (head.getInt() & 1) != 0;
+            int n = head.getInt(), m = head.getInt(), c = head.getInt(), dagM = head.getInt();
+            if (directed != g.isDirected() || n != g.getN() || m != g.getEdgesCount() || checksum != graphChecksum)
+                return null;
+            if (c < 0 || c > n || (c == 0) != (n == 0) || dagM < 0) return null;
+            if (ch.size() < HEADER_BYTES + 4L * (2L * n + 3L * c + 2 + 2L * dagM))
+                throw new IllegalArgumentException("Truncated pipeline snapshot: " + file);
+
+            long pos = HEADER_BYTES;
+            int[] component = BinaryGraphFormat.readInts(ch, pos, n);
+            int[] memberOff = BinaryGraphFormat.readInts(ch, pos += 4L * n, c + 1);
+            int[] members = BinaryGraphFormat.readInts(ch, pos += 4L * (c + 1), n);
+            int[] dagOff = BinaryGraphFormat.readInts(ch, pos += 4L * n, c + 1);
+            int[] dagTo = BinaryGraphFormat.readInts(ch, pos += 4L * (c + 1), dagM);
+            int[] dagW = BinaryGraphFormat.readInts(ch, pos += 4L * dagM, dagM);
+            int[] topo = BinaryGraphFormat.readInts(ch, pos + 4L * dagM, c);
+            if (!consistent(n, c, component, memberOff, members, dagOff, dagTo, topo)) return null;
+
+            List<List<Integer>> components = new ArrayList<>(c);
+            for (int k = 0; k < c; k++) components.add(view(members, memberOff[k], memberOff[k + 1]));
+            Graph dag = new Graph(new CsrGraph(c, true, dagOff, dagTo, dagW));
+            return new PipelineSnapshot(new Kosaraju.Result(component, components), dag, view(topo, 0, c));
+        }
+    }
+
+    /**
+     * Checks that the sections describe a partition of n vertices into c components
+     * and a condensation DAG over them in topological order:
+     *  - component[v] in [0, c);
+     *  - memberOff runs monotonically from 0 to n, and the members of k are
+     *    distinct vertices with component k;
+     *  - dagOff runs monotonically from 0 to dagTo.length, targets are in [0, c);
+     *  - topo is a permutation of [0, c) and every DAG edge points forward in it.
+     */
+    static boolean consistent(int n, int c, int[] component, int[] memberOff, int[] members,
+                              int[] dagOff, int[] dagTo, int[] topo) {
+        for (int v = 0; v < n; v++) {
+            if (component[v] < 0 || component[v] >= c) return false;
+        }
+        if (memberOff[0] != 0 || memberOff[c] != n || dagOff[0] != 0 || dagOff[c] != dagTo.length) return false;
+        boolean[] seen = new boolean[n];
+        for (int k = 0; k < c; k++) {
+            if (memberOff[k + 1] < memberOff[k] || memberOff[k + 1] > n
+                    || dagOff[k + 1] < dagOff[k] || dagOff[k + 1] > dagTo.length) return false;
+            for (int i = memberOff[k]; i < memberOff[k + 1]; i++) {
+                int v = members[i];
+                if (v < 0 || v >= n || seen[v] || component[v] != k) return false;
+                seen[v] = true;
+            }
+        }
+        int[] position = new int[c];
+        Arrays.fill(position, -1);
+        for (int i = 0; i < c; i++) {
+            int k = topo[i];
+            if (k < 0 || k >= c || position[k] >= 0) return false;
+            position[k] = i;
+        }
+        for (int k = 0; k < c; k++) {
+            for (int i = dagOff[k]; i < dagOff[k + 1]; i++) {
+                if (dagTo[i] < 0 || dagTo[i] >= c || position[dagTo[i]] <= position[k]) return false;
+            }
+        }
+        return true;
+    }
+
+    // Read-only List<Integer> over values[from, to); boxes on access only.
+    private static List<Integer> view(int[] values, int from, int to) {
+        return new AbstractList<>() {
+            @Override
+            public Integer get(int i) {
+                Objects.checkIndex(i, to - from);
+                return values[from + i];
+            }
+            @Override
+            public int size() {
+                return to - from;
+            }
+        };
+    }
+}
@@ -0,0 +1,78 @@
+package graph.util;
+import org.apache.commons.csv.*;
+import graph.model.CsrGraph;
+import graph.scc.ParallelScc;
+import graph.scc.Tarjan;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+/**
+ * SccScalingReport
+ * ----------------
+ * Compares the parallel SCC engine (ParallelScc) with the sequential
+ * iterative engine (Tarjan) on one synthetic graph (GraphGenerator, power-law
+ * SCC sizes) while the number of worker threads grows 1, 2, 4, ... up to the
+ * available cores.
+ *
+ * Usage: SccScalingReport [vertices] [seed]
+ * CSV Columns:
+ * threads, sequential_ns, parallel_ns, speedup
+ */
+public class SccScalingReport {
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42L;
+        Path outputPath = Path.of("scc_scaling.csv");
+
+        CsrGraph g = new GraphGenerator().seed(seed).vertices(n)
+                .sccSizes(GraphGenerator.SccSizes.POWER_LAW, 1, 10_000)
+                .toGraph().toCsr();
+        System.out.println("Graph: " + n + " vertices, " + g.getEdgesCount() + " edges");
+        long sequential = median(() -> Tarjan.run(g));
+        System.out.printf("Sequential (Tarjan): %d ns%n", sequential);
+
+        try (var writer = Files.newBufferedWriter(outputPath);
+             var csv = new CSVPrinter(writer, CSVFormat.DEFAULT.builder()
+                     .setHeader("threads", "sequential_ns", "parallel_ns", "speedup").build())) {
+            for (int threads : threadCounts(Runtime.getRuntime().availableProcessors())) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                try {
+                    long parallel = median(() -> ParallelScc.run(g, pool));
+                    double speedup = (double) sequential / parallel;
+                    csv.printRecord(threads, sequential, parallel, String.format(Locale.ROOT, "%.2f", speedup));
+                    System.out.printf("%2d threads | parallel: %d ns | speedup: %.2fx%n", threads, parallel, speedup);
+                } finally {
+                    pool.shutdown();
+                }
+            }
+            System.out.println(" Results saved to " + outputPath.toAbsolutePath());
+        } catch (IOException e) {
+            System.err.println(" Error writing CSV: " + e.getMessage());
+        }
+    }
+
+    // 1, 2, 4, ... and finally the core count itself.
+    private static List<Integer> threadCounts(int cores) {
+        List<Integer> counts = new ArrayList<>();
+        for (int t = 1; t < cores; t *= 2) counts.add(t);
+        counts.add(cores);
+        return counts;
+    }
+
+    // Median wall-clock time of the measured runs after warm-up.
+    private static long median(Runnable task) {
+        for (int i = 0; i < WARMUP_RUNS; i++) task.run();
+        long[] times = new long[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            task.run();
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        return times[MEASURED_RUNS / 2];
+    }
+}
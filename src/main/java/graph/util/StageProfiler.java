@@ -0,0 +1,157 @@
+package graph.util;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+/**
+ * Always-on per-stage latency recording for production runs.
+ *
+ * Every timed stage (load or generation of the input, SCC, condensation,
+ * topological sort, shortest and longest path) is recorded twice:
+ *  - as a JDK Flight Recorder event ({@link StageEvent}, "graph.PipelineStage"),
+ *    so a recording shows each stage next to GC pauses and safepoints;
+ *    without an active recording the event costs next to nothing;
+ *  - into a fixed-memory {@link LatencyHistogram} per dataset and stage, whose
+ *    percentiles can be written to CSV with {@link #writeCsv}.
+ * Histograms are kept apart per dataset because stage times of a 10-vertex and
+ * a 10^6-vertex graph differ by orders of magnitude: one histogram over both
+ * would report the size mix, not the latency. Percentiles become meaningful
+ * once a dataset has been run repeatedly (e.g. PerformanceAnalyzer --runs, or
+ * the queries of a long-running QueryServer).
+ * A histogram (~29 KB) is allocated when the first span of its dataset and stage
+ * ends; spans that never end (the stage failed) leave nothing behind.
+ * Thread-safe: one profiler can be shared by concurrent tasks.
+ *
+ * Usage:
+ *   Span span = profiler.start(Stage.SCC, ds.name);
+ *   var scc = Kosaraju.run(g);
+ *   long ns = span.end();
+ */
+public class StageProfiler {
+    /** Timed pipeline stages. */
+    public enum Stage {
+        LOAD, GENERATE, SCC, CONDENSATION, TOPO_SORT, SHORTEST_PATH, LONGEST_PATH;
+
+        public final String key = name().toLowerCase(Locale.ROOT);
+    }
+
+    /** JFR event for one stage execution; the event duration is the stage time. */
+    @Name("graph.PipelineStage")
+    @Label("Pipeline Stage")
+    @Category({"Graph", "Pipeline"})
+    @Description("One stage of the SCC -> condensation -> topo sort -> DAG path pipeline")
+    public static final class StageEvent extends jdk.jfr.Event {
+        @Label("Stage")
+        public String stage;
+        @Label("Dataset")
+        public String dataset;
+        @Label("Elapsed")
+        @Timespan(Timespan.NANOSECONDS)
+        public long elapsed;
+    }
+
+    private static final String[] CSV_HEADER = {
+            "dataset", "stage", "count", "min_ns", "p50_ns", "p90_ns", "p99_ns", "p999_ns", "max_ns", "mean_ns"
+    };
+
+    // dataset -> histogram per stage (null until the stage first runs); insertion order, guarded by itself
+    private final Map<String, LatencyHistogram[]> histograms = new LinkedHashMap<>();
+
+    /** A running stage; call {@link #end()} exactly once. */
+    public final class Span {
+        private final Stage stage;
+        private final String dataset;
+        private final StageEvent event;
+        private final long start;
+
+        private Span(Stage stage, String dataset) {
+            this.stage = stage;
+            this.dataset = dataset;
+            this.event = new StageEvent();
+            event.stage = stage.key;
+            event.dataset = dataset;
+            event.begin();
+            this.start = System.nanoTime();
+        }
+        /** Stops the stage, records it and returns the elapsed nanoseconds. */
+        public long end() {
+            long elapsed = System.nanoTime() - start;
+            event.end();
+            record(dataset, stage).record(elapsed);
+            if (event.shouldCommit()) {
+                event.elapsed = elapsed;
+                event.commit();
+            }
+            return elapsed;
+        }
+    }
+
+    /** Starts timing stage on the given dataset. */
+    public Span start(Stage stage, String dataset) {
+        return new Span(stage, dataset);
+    }
+    /** Histogram of stage on the given dataset, or null if that stage never ended on it. */
+    public LatencyHistogram histogram(String dataset, Stage stage) {
+        synchronized (histograms) {
+            LatencyHistogram[] perStage = histograms.get(key(dataset));
+            return perStage == null ? null : perStage[stage.ordinal()];
+        }
+    }
+    // Histogram a finished span goes to, allocated on first use.
+    private LatencyHistogram record(String dataset, Stage stage) {
+        synchronized (histograms) {
+            LatencyHistogram[] perStage = histograms.computeIfAbsent(key(dataset),
+                    d -> new LatencyHistogram[Stage.values().length]);
+            if (perStage[stage.ordinal()] == null) perStage[stage.ordinal()] = new LatencyHistogram();
+            return perStage[stage.ordinal()];
+        }
+    }
+    /** Datasets with at least one histogram, in the order they were first seen. */
+    public List<String> datasets() {
+        synchronized (histograms) {
+            return new ArrayList<>(histograms.keySet());
+        }
+    }
+    public void reset() {
+        synchronized (histograms) {
+            histograms.clear();
+        }
+    }
+    private static String key(String dataset) {
+        return dataset == null ? "" : dataset;
+    }
+
+    /** Writes count, min, p50, p90, p99, p999, max and mean of every dataset and stage that ran. */
+    public void writeCsv(Path output) throws IOException {
+        try (var writer = Files.newBufferedWriter(output);
+             var csv = new CSVPrinter(writer, CSVFormat.DEFAULT.builder().setHeader(CSV_HEADER).build())) {
+            Map<String, LatencyHistogram[]> copy = new LinkedHashMap<>();
+            synchronized (histograms) {
+                histograms.forEach((dataset, perStage) -> copy.put(dataset, perStage.clone()));
+            }
+            for (var entry : copy.entrySet()) {
+                String dataset = entry.getKey();
+                for (Stage stage : Stage.values()) {
+                    LatencyHistogram h = entry.getValue()[stage.ordinal()];
+                    if (h == null || h.count() == 0) continue;
+                    csv.printRecord(dataset, stage.key, h.count(), h.min(), h.percentile(0.5), h.percentile(0.9),
+                            h.percentile(0.99), h.percentile(0.999), h.max(), Math.round(h.mean()));
+                }
+            }
+        }
+    }
+    /** Percentile file next to a results file: results.csv -> results_latency.csv. */
+    public static Path latencyPathFor(Path results) {
+        String name = results.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot < 0 ? name : name.substring(0, dot);
+        return results.resolveSibling(base + "_latency.csv");
+    }
+}
@@ -0,0 +1,192 @@
+package graph.util;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+import graph.scc.Kosaraju;
+import graph.topo.LevelTopologicalSort;
+import java.util.*;
+/**
+ * Vertex relabeling for cache locality.
+ *
+ * Vertex ids come straight from the JSON "u"/"v" fields, so neighbours can be
+ * far apart in every array indexed by vertex (Kosaraju's visited/component,
+ * the DP's dist/parent). Relabeling so that neighbours get nearby ids turns
+ * those scattered accesses into mostly sequential ones.
+ *
+ * Strategies:
+ *  - BFS: breadth-first order over edges in both directions;
+ *  - RCM: reverse Cuthill-McKee (BFS from a low-degree vertex, neighbours by
+ *    increasing degree, whole order reversed), keeps the id bandwidth small;
+ *  - TOPOLOGICAL: Kahn order, for DAGs such as the condensation; the DP then
+ *    walks dist[] front to back.
+ *
+ * The permutation is kept, so results computed on the relabeled graph
+ * (components, distances, parents, paths) can be mapped back to original ids.
+ */
+public class VertexReordering {
+    /** How the new order is computed. */
+    public enum Strategy { BFS, RCM, TOPOLOGICAL }
+
+    public final int[] newId; // original id -> new id
+    public final int[] oldId; // new id -> original id
+
+    private VertexReordering(int[] oldId) {
+        this.oldId = oldId;
+        this.newId = new int[oldId.length];
+        for (int i = 0; i < oldId.length; i++) newId[oldId[i]] = i;
+    }
+
+    public static VertexReordering compute(Graph g, Strategy strategy) {
+        return compute(g.toCsr(), strategy);
+    }
+    /**
+     * Computes a new order for g.
+     *
+     * @throws IllegalArgumentException if TOPOLOGICAL is used on a graph with a cycle
+     */
+    public static VertexReordering compute(CsrGraph g, Strategy strategy) {
+        return switch (strategy) {
+            case BFS -> new VertexReordering(bfs(g, false));
+            case RCM -> new VertexReordering(bfs(g, true));
+            case TOPOLOGICAL -> new VertexReordering(LevelTopologicalSort.sort(g).order);
+        };
+    }
+    /** Identity permutation (no relabeling). */
+    public static VertexReordering identity(int n) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        return new VertexReordering(order);
+    }
+    /** Random permutation, e.g. to simulate scattered input ids in benchmarks. */
+    public static VertexReordering shuffle(int n, long seed) {
+        int[] order = identity(n).oldId;
+        SplittableRandom rnd = new SplittableRandom(seed);
+        for (int i = n - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1), t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        return new VertexReordering(order);
+    }
+
+    /** Relabeled copy of g (frozen); each vertex keeps its edges in the original order. */
+    public Graph apply(Graph g) {
+        return new Graph(apply(g.toCsr()));
+    }
+    public CsrGraph apply(CsrGraph g) {
+        int n = g.getN();
+        int[] off = g.getOffsets(), to = g.getTargets(), w = g.getWeights();
+        int[] offsets = new int[n + 1], targets = new int[to.length], weights = new int[w.length];
+        for (int v = 0; v < n; v++) {
+            int u = oldId[v], deg = off[u + 1] - off[u];
+            offsets[v + 1] = offsets[v] + deg;
+            for (int i = 0; i < deg; i++) {
+                targets[offsets[v] + i] = newId[to[off[u] + i]];
+                weights[offsets[v] + i] = w[off[u] + i];
+            }
+        }
+        return new CsrGraph(n, g.isDirected(), offsets, targets, weights);
+    }
+    /** Maps a topological order (or any vertex list) of the original graph to new ids. */
+    public List<Integer> toNew(List<Integer> vertices) {
+        List<Integer> mapped = new ArrayList<>(vertices.size());
+        for (int v : vertices) mapped.add(newId[v]);
+        return mapped;
+    }
+
+    /**
+     * Maps an SCC result computed on the relabeled graph back to original ids.
+     * Component numbering (topological order) is unchanged.
+     */
+    public Kosaraju.Result mapBack(Kosaraju.Result r) {
+        int n = oldId.length;
+        int[] component = new int[n];
+        for (int v = 0; v < n; v++) component[v] = r.component[newId[v]];
+        List<List<Integer>> components = new ArrayList<>(r.components.size());
+        for (List<Integer> comp : r.components) {
+            List<Integer> mapped = new ArrayList<>(comp.size());
+            for (int v : comp) mapped.add(oldId[v]);
+            components.add(mapped);
+        }
+        return new Kosaraju.Result(component, components);
+    }
+    /** Per-vertex values (e.g. dist) indexed by new id -> indexed by original id. */
+    public long[] mapBack(long[] values) {
+        long[] mapped = new long[values.length];
+        for (int v = 0; v < values.length; v++) mapped[v] = values[newId[v]];
+        return mapped;
+    }
+    /** Parent array in new ids -> parent array in original ids (-1 stays -1). */
+    public int[] mapBackParents(int[] parent) {
+        int[] mapped = new int[parent.length];
+        for (int v = 0; v < parent.length; v++) {
+            int p = parent[newId[v]];
+            mapped[v] = p == -1 ? -1 : oldId[p];
+        }
+        return mapped;
+    }
+    /** Path in new ids -> path in original ids. */
+    public int[] mapBackPath(int[] path) {
+        int[] mapped = new int[path.length];
+        for (int i = 0; i < path.length; i++) mapped[i] = oldId[path[i]];
+        return mapped;
+    }
+
+    // BFS over out- and in-edges; with rcm, neighbours are visited by increasing
+    // degree, every BFS starts at a minimum-degree vertex, and the order is reversed.
+    private static int[] bfs(CsrGraph g, boolean rcm) {
+        int n = g.getN();
+        int[] off = g.getOffsets(), to = g.getTargets();
+        CsrGraph t = g.transpose();
+        int[] inOff = t.getOffsets(), inTo = t.getTargets();
+        int[] degree = new int[n];
+        for (int v = 0; v < n; v++) degree[v] = off[v + 1] - off[v] + inOff[v + 1] - inOff[v];
+
+        int[] starts = new int[n];
+        for (int v = 0; v < n; v++) starts[v] = v;
+        if (rcm) starts = sortByDegree(starts, n, degree);
+
+        int[] order = new int[n];
+        boolean[] seen = new boolean[n];
+        int[] scratch = new int[n];
+        int head = 0, tail = 0;
+        for (int s : starts) {
+            if (seen[s]) continue;
+            seen[s] = true;
+            order[tail++] = s;
+            while (head < tail) {
+                int u = order[head++];
+                int found = 0;
+                for (int i = off[u]; i < off[u + 1]; i++) {
+                    if (!seen[to[i]]) { seen[to[i]] = true; scratch[found++] = to[i]; }
+                }
+                for (int i = inOff[u]; i < inOff[u + 1]; i++) {
+                    if (!seen[inTo[i]]) { seen[inTo[i]] = true; scratch[found++] = inTo[i]; }
+                }
+                if (rcm) {
+                    int[] sorted = sortByDegree(scratch, found, degree);
+                    System.arraycopy(sorted, 0, order, tail, found);
+                } else {
+                    System.arraycopy(scratch, 0, order, tail, found);
+                }
+                tail += found;
+            }
+        }
+        if (rcm) {
+            for (int i = 0, j = n - 1; i < j; i++, j--) {
+                int x = order[i];
+                order[i] = order[j];
+                order[j] = x;
+            }
+        }
+        return order;
+    }
+    // First `count` entries of vertices, stably sorted by degree.
+    private static int[] sortByDegree(int[] vertices, int count, int[] degree) {
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) keys[i] = ((long) degree[vertices[i]] << 32) | i;
+        Arrays.sort(keys);
+        int[] sorted = new int[count];
+        for (int i = 0; i < count; i++) sorted[i] = vertices[(int) keys[i]];
+        return sorted;
+    }
+}
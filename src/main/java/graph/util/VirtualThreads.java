@@ -0,0 +1,43 @@
+package graph.util;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+/**
+ * Executors on virtual threads when the running JVM has them (Java 21+).
+ *
+ * The project is compiled for Java 17, so Executors.newVirtualThreadPerTaskExecutor
+ * is looked up by reflection. On older JVMs a fixed pool of platform threads is
+ * returned instead; callers bound their own parallelism either way.
+ */
+public final class VirtualThreads {
+    private static final Method FACTORY = lookup();
+
+    private VirtualThreads() {}
+
+    /** True if tasks will run on virtual threads. */
+    public static boolean available() {
+        return FACTORY != null;
+    }
+    /**
+     * Returns a virtual-thread-per-task executor, or a fixed pool of
+     * fallbackThreads platform threads if virtual threads are not available.
+     */
+    public static ExecutorService newExecutor(int fallbackThreads) {
+        if (FACTORY != null) {
+            try {
+                return (ExecutorService) FACTORY.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // fall through to platform threads
+            }
+        }
+        return Executors.newFixedThreadPool(Math.max(1, fallbackThreads));
+    }
+
+    private static Method lookup() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -1,18 +1,65 @@
 package org.example;
+import graph.model.CsrGraph;
+import graph.model.Edge;
 import graph.model.Graph;
 import graph.scc.Kosaraju;
 import graph.scc.CondensationGraph;
+import graph.scc.ConnectedComponents;
+import graph.scc.DynamicScc;
+import graph.scc.ParallelScc;
+import graph.scc.Tarjan;
+import graph.util.GraphLoader;
+import graph.topo.LevelTopologicalSort;
 import graph.topo.TopologicalSort;
+import graph.util.GraphGenerator;
 import org.junit.jupiter.api.Test;
 import java.util.List;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import static org.junit.jupiter.api.Assertions.*;
 /**
  * Tests for core graph algorithms:
- * - SCC detection (Kosaraju)
+ * - CSR graph backend
+ * - SCC detection (Kosaraju, iterative Tarjan, parallel forward-backward)
  * - Condensation graph
- * - DFS-based Topological Sort
+ * - DFS-based and level-structured (Kahn) Topological Sort
  */
 public class AlgorithmTests {
+    // --- CSR backend tests ---
+    @Test
+    void testCsrKeepsEdgeOrder() {
+        Graph g = new Graph(3, true);
+        g.addEdge(0, 2, 7);
+        g.addEdge(0, 1, 4);
+        g.addEdge(2, 1, 1);
+
+        CsrGraph csr = g.toCsr();
+        assertArrayEquals(new int[]{0, 2, 2, 3}, csr.getOffsets());
+        assertArrayEquals(new int[]{2, 1, 1}, csr.getTargets());
+        assertArrayEquals(new int[]{7, 4, 1}, csr.getWeights());
+        assertArrayEquals(new int[]{0, 0, 2, 3}, csr.transpose().getOffsets());
+        // adjacency lists are read-only live views: edits go through addEdge, which resets the CSR
+        var adj = g.getAdj();
+        assertThrows(UnsupportedOperationException.class, () -> adj.get(0).add(new Edge(0, 1, 1)));
+        g.addEdge(1, 0, 5);
+        assertEquals(1, adj.get(1).size());
+        assertEquals(4, g.toCsr().getEdgesCount());
+    }
+    @Test
+    void testFrozenGraphMatchesBuilder() {
+        Graph g = new Graph(new CsrGraph.Builder(false).addEdge(0, 1, 2).addEdge(1, 2, 3).build(3));
+        assertTrue(g.isFrozen());
+        assertEquals(4, g.getEdgesCount());
+
+        var result = Kosaraju.run(g);
+        assertEquals(1, result.components.size());
+        g.addEdge(2, 0, 1); // thaws back to adjacency lists
+        assertFalse(g.isFrozen());
+        assertEquals(6, g.toCsr().getEdgesCount());
+    }
     // --- Kosaraju tests ---
     @Test
     void testStronglyConnectedPair() {
@@ -30,6 +77,141 @@ public class AlgorithmTests {
         var result = Kosaraju.run(g);
         assertEquals(3, result.components.size());
     }
+    @Test
+    void testTarjanMatchesKosarajuOnDatasets() {
+        for (String name : List.of("small_1.json", "medium_3.json", "large_3.json")) {
+            Graph g = GraphLoader.loadFromResource(name).graph;
+            assertSamePartition(Kosaraju.run(g), Tarjan.run(g));
+        }
+    }
+    @Test
+    void testTarjanHandlesLongChain() {
+        int n = 200_000; // deep enough to overflow a recursive DFS
+        Graph g = new Graph(n, true);
+        for (int v = 0; v + 1 < n; v++) g.addEdge(v, v + 1, 1);
+        g.addEdge(n - 1, 0, 1);
+
+        var result = Tarjan.run(g);
+        assertEquals(1, result.components.size());
+        assertEquals(n, result.components.get(0).size());
+    }
+    @Test
+    void testKosarajuAndTopoSortHandleLongChain() {
+        int n = 200_000; // deep enough to overflow a recursive DFS
+        Graph g = new Graph(n, true);
+        for (int v = 0; v + 1 < n; v++) g.addEdge(v, v + 1, 1);
+
+        var result = Kosaraju.run(g);
+        assertEquals(n, result.components.size());
+        var topo = TopologicalSort.sort(g);
+        for (int v = 0; v < n; v++) assertEquals(v, topo.get(v));
+
+        g.addEdge(n - 1, 0, 1);
+        assertEquals(1, Kosaraju.run(g).components.size());
+        assertEquals(0, Kosaraju.run(g).components.get(0).get(0)); // preorder from the DFS root
+    }
+    @Test
+    void testParallelSccMatchesTarjan() {
+        int n = 50_000;
+        Random rnd = new Random(7);
+        CsrGraph.Builder b = new CsrGraph.Builder(true);
+        for (int u = 0; u < n; u++) {
+            b.addEdge(u, rnd.nextInt(n), 1);
+            if (u % 3 == 0) b.addEdge(u, rnd.nextInt(n), 1);
+        }
+        CsrGraph g = b.build(n);
+        var pool = new ForkJoinPool(4);
+        try {
+            assertSamePartition(Tarjan.run(g), ParallelScc.run(g, pool));
+        } finally {
+            pool.shutdown();
+        }
+        Graph small = GraphLoader.loadFromResource("large_3.json").graph;
+        assertSamePartition(Kosaraju.run(small), ParallelScc.run(small));
+    }
+    @Test
+    void testConnectedComponentsMatchesTarjan() {
+        int n = 60_000;
+        Random rnd = new Random(11);
+        CsrGraph.Builder b = new CsrGraph.Builder(false);
+        for (int i = 0; i < n * 9 / 10; i++) b.addEdge(rnd.nextInt(n), rnd.nextInt(n), 1);
+        CsrGraph g = b.build(n);
+        var pool = new ForkJoinPool(4);
+        try {
+            var cc = ConnectedComponents.run(g, pool);
+            assertSamePartition(Tarjan.run(g), cc);
+            for (int c = 0; c < cc.components.size(); c++) { // numbered by smallest vertex
+                assertEquals(c, cc.component[cc.components.get(c).get(0)]);
+                if (c > 0) assertTrue(cc.components.get(c - 1).get(0) < cc.components.get(c).get(0));
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> ConnectedComponents.run(GraphLoader.loadFromResource("small_1.json").graph));
+    }
+    @Test
+    void testDynamicSccMatchesRecomputation() {
+        Graph g = new GraphGenerator().seed(13).vertices(600).sccSizes(GraphGenerator.SccSizes.UNIFORM, 1, 12).toGraph();
+        DynamicScc dyn = new DynamicScc(g);
+        Random rnd = new Random(5);
+        for (int step = 0; step < 400; step++) {
+            int u = rnd.nextInt(g.getN()), v = rnd.nextInt(g.getN());
+            if (rnd.nextBoolean()) {
+                dyn.addEdge(u, v, 1 + rnd.nextInt(9));
+            } else {
+                // remove an existing edge of u if it has one
+                var edges = g.getAdj().get(u);
+                if (!edges.isEmpty()) assertTrue(dyn.removeEdge(u, edges.get(rnd.nextInt(edges.size())).getV()));
+            }
+            if (step % 20 != 19) continue;
+            Kosaraju.Result expected = Tarjan.run(g);
+            Kosaraju.Result actual = dyn.result();
+            assertSamePartition(expected, actual);
+            // ids of result() must be a topological order of the condensation
+            Graph dag = dyn.condensation();
+            for (int x = 0; x < g.getN(); x++)
+                for (var e : g.getAdj().get(x))
+                    assertTrue(actual.component[x] <= actual.component[e.getV()]);
+            Graph rebuilt = CondensationGraph.build(g, actual, CondensationGraph.Aggregation.MIN);
+            assertEquals(edgeSet(rebuilt), edgeSet(dag));
+        }
+    }
+    @Test
+    void testDynamicSccMergeAndSplit() {
+        Graph g = new Graph(4, true);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 2, 1);
+        g.addEdge(2, 3, 1);
+        DynamicScc dyn = new DynamicScc(g);
+        assertEquals(4, dyn.componentCount());
+        dyn.addEdge(3, 1, 1); // closes 1 -> 2 -> 3 -> 1
+        assertEquals(2, dyn.componentCount());
+        assertTrue(dyn.sameComponent(1, 3));
+        assertEquals(List.of(0), dyn.result().components.get(0));
+        assertTrue(dyn.removeEdge(2, 3));
+        assertEquals(4, dyn.componentCount());
+        assertFalse(dyn.removeEdge(2, 3));
+        int[] component = dyn.result().component;
+        assertTrue(component[0] < component[1] && component[3] < component[1] && component[1] < component[2]);
+    }
+    private static Set<String> edgeSet(Graph g) {
+        Set<String> set = new HashSet<>();
+        for (var edges : g.getAdj()) for (var e : edges) set.add(e.toString());
+        return set;
+    }
+    // Two results describe the same SCCs if they group vertices identically.
+    static void assertSamePartition(Kosaraju.Result expected, Kosaraju.Result actual) {
+        assertEquals(expected.components.size(), actual.components.size());
+        int n = expected.component.length;
+        int[] mapping = new int[expected.components.size()];
+        Arrays.fill(mapping, -1);
+        for (int v = 0; v < n; v++) {
+            int e = expected.component[v], a = actual.component[v];
+            if (mapping[e] == -1) mapping[e] = a;
+            assertEquals(mapping[e], a, "vertex " + v + " is in a different component");
+        }
+    }
     // --- Condensation Graph test ---
     @Test
     void testCondensationGraph() {
@@ -42,6 +224,26 @@ public class AlgorithmTests {
         var dag = CondensationGraph.build(g, scc);
         assertEquals(2, dag.getN());
     }
+    @Test
+    void testCondensationAggregatesParallelEdges() {
+        Graph g = new Graph(3, true);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 0, 1);
+        g.addEdge(0, 2, 5);
+        g.addEdge(1, 2, 3);
+        g.addEdge(0, 2, 7);
+        var scc = Kosaraju.run(g);
+        int a = scc.component[0], b = scc.component[2];
+
+        int[] expected = {5, 3, 7, 15, 3}; // FIRST, MIN, MAX, SUM, COUNT
+        CondensationGraph.Aggregation[] policies = CondensationGraph.Aggregation.values();
+        for (int p = 0; p < policies.length; p++) {
+            CsrGraph dag = CondensationGraph.build(g, scc, policies[p]).toCsr();
+            assertEquals(1, dag.getEdgesCount(), policies[p].name());
+            assertEquals(b, dag.getTargets()[dag.getOffsets()[a]]);
+            assertEquals(expected[p], dag.getWeights()[0], policies[p].name());
+        }
+    }
     // --- Topological Sort tests ---
     @Test
     void testLinearTopoOrder() {
@@ -63,4 +265,39 @@ public class AlgorithmTests {
         assertTrue(order.indexOf(0) < order.indexOf(1));
         assertTrue(order.indexOf(0) < order.indexOf(2));
     }
+    @Test
+    void testLevelTopoSortWavefronts() {
+        Graph g = new Graph(5, true);
+        g.addEdge(0, 1, 1);
+        g.addEdge(0, 2, 1);
+        g.addEdge(1, 3, 1);
+        g.addEdge(2, 3, 1);
+        g.addEdge(4, 3, 1);
+
+        var levels = LevelTopologicalSort.sort(g);
+        assertEquals(3, levels.levelCount());
+        assertArrayEquals(new int[]{0, 4}, levels.levelVertices(0));
+        assertArrayEquals(new int[]{1, 2}, levels.levelVertices(1));
+        assertArrayEquals(new int[]{3}, levels.levelVertices(2));
+        assertEquals(2, levels.level[3]);
+    }
+    @Test
+    void testLevelTopoSortOnLargeCondensation() {
+        Graph g = new GraphGenerator().seed(9).vertices(200_000).toGraph();
+        Graph dag = CondensationGraph.build(g, Tarjan.run(g));
+        var levels = LevelTopologicalSort.sort(dag);
+        CsrGraph csr = dag.toCsr();
+        for (int u = 0; u < csr.getN(); u++) {
+            for (int i = csr.getOffsets()[u]; i < csr.getOffsets()[u + 1]; i++) {
+                assertTrue(levels.level[u] < levels.level[csr.getTargets()[i]]);
+            }
+        }
+    }
+    @Test
+    void testLevelTopoSortRejectsCycle() {
+        Graph g = new Graph(2, true);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 0, 1);
+        assertThrows(IllegalArgumentException.class, () -> LevelTopologicalSort.sort(g));
+    }
 }
@@ -1,9 +1,24 @@
 package org.example;
+import graph.model.CsrGraph;
 import graph.model.Graph;
 import graph.topo.TopologicalSort;
 import graph.dagsp.DAGShortestPath;
 import graph.dagsp.DAGLongestPath;
+import graph.dagsp.DAGFusedPaths;
+import graph.dagsp.DAGPairQuery;
+import graph.dagsp.DAGPathBatch;
+import graph.dagsp.IncrementalDagPaths;
+import graph.dagsp.PathWorkspace;
+import graph.dagsp.Objective;
+import graph.dagsp.ReachabilityIndex;
+import graph.scc.CondensationGraph;
+import graph.scc.Tarjan;
+import graph.util.GraphGenerator;
 import org.junit.jupiter.api.Test;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 import static org.junit.jupiter.api.Assertions.*;
 import graph.dagsp.DAGShortestPath.Result;
 /**
@@ -54,4 +69,203 @@ public class PathTests {
         assertEquals(Long.MIN_VALUE, longest.dist[2]);
     }
 
+    @Test
+    void testBatchMatchesSingleSourceRuns() {
+        Graph g = new GraphGenerator().seed(4).vertices(3_000).toGraph();
+        Graph dag = CondensationGraph.build(g, Tarjan.run(g));
+        var topo = TopologicalSort.sort(dag);
+        int[] sources = {topo.get(0), topo.get(5), topo.get(topo.size() / 2), topo.get(topo.size() - 1)};
+
+        long[][] shortest = DAGPathBatch.distanceMatrix(dag, topo, sources, Objective.SHORTEST);
+        long[][] longest = DAGPathBatch.distanceMatrix(dag, topo, sources, Objective.LONGEST);
+        for (int i = 0; i < sources.length; i++) {
+            assertArrayEquals(DAGShortestPath.run(dag, topo, sources[i]).dist, shortest[i]);
+            assertArrayEquals(DAGLongestPath.run(dag, topo, sources[i]).dist, longest[i]);
+        }
+
+        var seen = new AtomicInteger();
+        DAGPathBatch.forEach(dag.toCsr(), topo, sources, Objective.SHORTEST,
+                ForkJoinPool.commonPool(), (i, src, dist) -> {
+                    // a buffer is never shared by two sources running at the same time
+                    assertArrayEquals(shortest[i], dist);
+                    seen.incrementAndGet();
+                });
+        assertEquals(sources.length, seen.get());
+    }
+
+    @Test
+    void testReachabilityIndexModesAgree() {
+        Graph g = new GraphGenerator().seed(8).vertices(4_000).dagEdgesPerComponent(1.5).toGraph();
+        var scc = Tarjan.run(g);
+        Graph dag = CondensationGraph.build(g, scc);
+        var topo = TopologicalSort.sort(dag);
+        var closure = ReachabilityIndex.build(dag, topo);
+        var intervals = ReachabilityIndex.build(dag, topo, 0);
+        assertTrue(closure.isTransitiveClosure());
+        assertFalse(intervals.isTransitiveClosure());
+        assertTrue(closure.memoryBytes() > 0 && intervals.memoryBytes() > 0);
+
+        Random rnd = new Random(1);
+        for (int q = 0; q < 300; q++) {
+            int a = rnd.nextInt(dag.getN());
+            long[] dist = DAGShortestPath.run(dag, topo, a).dist; // ground truth
+            for (int k = 0; k < 20; k++) {
+                int b = rnd.nextInt(dag.getN());
+                boolean expected = dist[b] != Long.MAX_VALUE;
+                assertEquals(expected, closure.reaches(a, b));
+                assertEquals(expected, intervals.reaches(a, b));
+            }
+        }
+        assertTrue(closure.reachesVertex(scc, 0, 0));
+
+        // search buffers belong to the index: fresh threads reuse the one already allocated
+        long before = intervals.memoryBytes();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int a = 0; a < dag.getN(); a += 7) intervals.reaches(a, dag.getN() - 1 - a);
+            });
+            thread.start();
+            assertDoesNotThrow(() -> thread.join());
+        }
+        assertTrue(intervals.memoryBytes() - before <= 8L * dag.getN(), "one pooled buffer at most");
+    }
+
+    @Test
+    void testIncrementalPathsMatchFullRecomputation() {
+        Graph g = new GraphGenerator().seed(14).vertices(3_000).toGraph();
+        Graph dag = CondensationGraph.build(g, Tarjan.run(g));
+        var topo = TopologicalSort.sort(dag);
+        CsrGraph csr = dag.toCsr();
+        int src = topo.get(0);
+        var shortest = IncrementalDagPaths.shortest(dag, topo, src);
+        var longest = IncrementalDagPaths.longest(dag, topo, src);
+        int[] weights = csr.getWeights().clone();
+
+        Random rnd = new Random(2);
+        long touched = 0;
+        for (int step = 0; step < 200; step++) {
+            int[] off = csr.getOffsets();
+            int u = rnd.nextInt(csr.getN());
+            if (off[u + 1] == off[u]) continue;
+            int v = csr.getTargets()[off[u] + rnd.nextInt(off[u + 1] - off[u])];
+            int first = off[u]; // updateWeight changes the first u -> v edge
+            while (csr.getTargets()[first] != v) first++;
+            weights[first] = 1 + rnd.nextInt(30);
+            touched += shortest.updateWeight(u, v, weights[first]);
+            longest.updateWeight(u, v, weights[first]);
+            assertEquals(weights[first], shortest.weight(u, v));
+        }
+        Graph updated = new Graph(new CsrGraph(csr.getN(), true, csr.getOffsets(), csr.getTargets(), weights));
+        assertArrayEquals(DAGShortestPath.run(updated, topo, src).dist, shortest.shortestResult().dist);
+        var expected = DAGLongestPath.run(updated, topo, src);
+        assertArrayEquals(expected.dist, longest.longestResult().dist);
+        assertEquals(expected.length(), longest.longestResult().length());
+        assertEquals(touched, shortest.totalTouched());
+        assertTrue(touched < 200L * dag.getN()); // far less than 200 full re-runs
+        assertThrows(IllegalArgumentException.class, () -> shortest.updateWeight(src, src, 1));
+    }
+
+    @Test
+    void testWorkspaceMatchesAllocatingRuns() {
+        Graph g = new GraphGenerator().seed(17).vertices(2_000).toGraph();
+        Graph dag = CondensationGraph.build(g, Tarjan.run(g));
+        var topo = TopologicalSort.sort(dag);
+        var ws = new PathWorkspace(dag.getN());
+        int[] buffer = new int[dag.getN()];
+        for (int k = 0; k < topo.size(); k += topo.size() / 7) {
+            int src = topo.get(k);
+            var sp = DAGShortestPath.run(dag, topo, src);
+            DAGShortestPath.run(dag.toCsr(), topo, src, ws);
+            for (int v = 0; v < dag.getN(); v++) {
+                assertEquals(sp.dist[v], ws.dist(v));
+                int[] expected = sp.reconstruct(v).stream().mapToInt(Integer::intValue).toArray();
+                assertArrayEquals(expected, sp.pathTo(v));
+                assertArrayEquals(expected, ws.path(v));
+                assertEquals(expected.length, ws.pathInto(v, buffer));
+                var cursor = ws.cursor(v);
+                assertEquals(expected.length, cursor.length());
+                for (int x : expected) assertEquals(x, cursor.next());
+                assertFalse(cursor.hasNext());
+            }
+            var lp = DAGLongestPath.run(dag, topo, src);
+            DAGLongestPath.run(dag.toCsr(), topo, src, ws); // reuses the same arrays
+            assertEquals(lp.length(), ws.dist(ws.best()));
+            assertArrayEquals(lp.criticalPath().stream().mapToInt(Integer::intValue).toArray(), lp.criticalPathArray());
+            assertArrayEquals(lp.dist, IntStream.range(0, dag.getN()).mapToLong(ws::dist).toArray());
+        }
+        assertThrows(IllegalArgumentException.class, () -> DAGShortestPath.run(dag.toCsr(), topo, 0, new PathWorkspace(1)));
+    }
+
+    @Test
+    void testFusedPathsMatchSeparateRuns() {
+        Graph g = new GraphGenerator().seed(18).vertices(3_000).toGraph();
+        Graph dag = CondensationGraph.build(g, Tarjan.run(g));
+        var topo = TopologicalSort.sort(dag);
+        int src = topo.get(0);
+        var fused = DAGFusedPaths.run(dag, topo, src);
+        var sp = DAGShortestPath.run(dag, topo, src);
+        var lp = DAGLongestPath.run(dag, topo, src);
+        assertArrayEquals(sp.dist, fused.shortest);
+        assertArrayEquals(sp.parent, fused.shortestParent);
+        assertArrayEquals(lp.dist, fused.longest);
+        assertEquals(lp.argmax, fused.argmax);
+        assertArrayEquals(lp.criticalPathArray(), fused.criticalPath());
+        for (int v = 0; v < dag.getN(); v++) {
+            assertEquals(sp.dist[v] == Long.MAX_VALUE, fused.pathCount[v] == 0);
+        }
+    }
+    @Test
+    void testFusedPathCountsAndSlack() {
+        // 0 -> 1 -> 3 (3 + 2) and 0 -> 2 -> 3 (1 + 1); vertex 4 is unreachable
+        Graph g = new Graph(5, true);
+        g.addEdge(0, 1, 3);
+        g.addEdge(0, 2, 1);
+        g.addEdge(1, 3, 2);
+        g.addEdge(2, 3, 1);
+        g.addEdge(4, 3, 7);
+        var topo = TopologicalSort.sort(g);
+        var r = DAGFusedPaths.run(g, topo, 0, true);
+        assertEquals(2, r.pathCount[3]);
+        assertEquals(0, r.pathCount[4]);
+        assertEquals(2, r.shortest[3]);
+        assertEquals(5, r.projectLength());
+        assertArrayEquals(new int[]{0, 1, 3}, r.criticalPath());
+        assertArrayEquals(new int[]{0, 2, 3}, r.shortestPath(3));
+        assertEquals(0, r.slack(1));
+        assertEquals(3, r.slack(2));
+        assertEquals(0, r.slack(3));
+        assertEquals(Long.MAX_VALUE, r.slack(4));
+        assertThrows(IllegalStateException.class, () -> DAGFusedPaths.run(g, topo, 0).slack(1));
+    }
+
+    @Test
+    void testPairQueriesMatchFullRuns() {
+        Graph g = new GraphGenerator().seed(20).vertices(5_000).toGraph();
+        Graph dag = CondensationGraph.build(g, Tarjan.run(g));
+        var topo = TopologicalSort.sort(dag);
+        var marks = DAGPairQuery.prepare(dag, topo);
+        var indexed = DAGPairQuery.prepare(dag, topo, ReachabilityIndex.build(dag, topo));
+        Random rnd = new Random(9);
+        long processed = 0;
+        for (int q = 0; q < 60; q++) {
+            int src = rnd.nextInt(dag.getN());
+            var full = DAGShortestPath.run(dag, topo, src);
+            for (int k = 0; k < 10; k++) {
+                int target = rnd.nextInt(dag.getN());
+                assertEquals(full.dist[target], marks.distance(src, target));
+                processed += marks.lastProcessed();
+                assertEquals(full.dist[target], indexed.distance(src, target));
+                int[] path = marks.path(src, target);
+                if (full.dist[target] == Long.MAX_VALUE) {
+                    assertEquals(0, path.length);
+                } else {
+                    assertEquals(src, path[0]);
+                    assertEquals(target, path[path.length - 1]);
+                    assertEquals(full.pathTo(target).length > 0, path.length > 0);
+                }
+            }
+        }
+        assertTrue(processed < 600L * dag.getN() / 4);
+        assertEquals(0, marks.distance(topo.get(3), topo.get(3)));
+    }
 }
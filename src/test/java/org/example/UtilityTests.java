@@ -1,7 +1,46 @@
 package org.example;
+import graph.dagsp.DAGLongestPath;
+import graph.dagsp.DAGShortestPath;
+import graph.model.Graph;
+import graph.external.SemiExternalPipeline;
+import graph.server.QueryServer;
 import graph.util.Metrics;
+import graph.util.BinaryGraphFormat;
+import graph.util.GraphGenerator;
 import graph.util.GraphLoader;
+import graph.util.GraphPipeline;
+import graph.util.OrderedCsvWriter;
+import graph.util.PipelineSnapshot;
+import graph.util.LatencyHistogram;
+import graph.util.StageProfiler;
+import graph.util.VertexReordering;
+import graph.util.VirtualThreads;
+import graph.scc.CondensationGraph;
+import graph.scc.Kosaraju;
+import graph.scc.Tarjan;
+import graph.topo.TopologicalSort;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import static org.junit.jupiter.api.Assertions.*;
 /**
  * Utility tests for Metrics and GraphLoader functionality.
@@ -23,6 +62,21 @@ public class UtilityTests {
         m.add("edge_relaxations", 4);
         assertTrue(m.summary().contains("edge_relaxations=4"));
     }
+    @Test
+    void testAlgorithmsReportCounters() {
+        var g = GraphLoader.loadFromResource("small_2.json").graph;
+        Metrics scc = new Metrics();
+        Kosaraju.run(g, scc);
+        assertEquals(2L * g.getN(), scc.get(Metrics.Counter.DFS_CALLS)); // both passes
+        assertEquals(2L * g.getEdgesCount(), scc.get(Metrics.Counter.EDGES_PROCESSED));
+        assertEquals(g.getN(), scc.get("stack_pushes"));
+        assertEquals(g.getN(), scc.get("stack_pops"));
+
+        Metrics noop = Metrics.NOOP;
+        Kosaraju.run(g, noop);
+        assertEquals(0, noop.get(Metrics.Counter.DFS_CALLS));
+        assertThrows(IllegalArgumentException.class, () -> new Metrics().inc("no_such_counter"));
+    }
     // --- GraphLoader tests ---
     @Test
     void testLoadExistingDataset() {
@@ -31,9 +85,398 @@ public class UtilityTests {
         assertTrue(ds.graph.getN() > 0);
     }
     @Test
+    void testLoadFromPathStreamsAnyFieldOrder(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("tiny.json");
+        Files.writeString(file, "{\"edges\": [{\"u\":0,\"v\":1,\"w\":3,\"note\":\"x\"}, {\"u\":1,\"v\":2,\"w\":4}],"
+                + " \"extra\": {\"a\": [1, 2]}, \"n\": 3, \"directed\": false, \"source\": 2}");
+        var ds = GraphLoader.loadFromPath(file);
+        assertEquals("tiny.json", ds.name);
+        assertEquals(3, ds.graph.getN());
+        assertEquals(4, ds.graph.getEdgesCount()); // undirected edges are mirrored
+        assertEquals(2, ds.source);
+        assertEquals("edge", ds.weightModel);
+    }
+    @Test
+    void testLoadFromPathMatchesResource() {
+        var fromResource = GraphLoader.loadFromResource("medium_1.json");
+        var fromPath = GraphLoader.loadFromPath(Path.of("src/main/resources/data/medium_1.json"));
+        assertEquals(fromResource.graph.toString(), fromPath.graph.toString());
+        assertEquals(fromResource.source, fromPath.source);
+    }
+    @Test
+    void testBinaryFormatRoundTrip(@TempDir Path dir) throws Exception {
+        var ds = GraphLoader.loadFromResource("large_2.json");
+        Path bin = dir.resolve("large_2.bin");
+        BinaryGraphFormat.write(ds, bin);
+
+        var loaded = GraphLoader.loadBinary(bin);
+        assertEquals("large_2.bin", loaded.name);
+        assertEquals(ds.source, loaded.source);
+        assertEquals(ds.weightModel, loaded.weightModel);
+        assertEquals(ds.graph.isDirected(), loaded.graph.isDirected());
+        assertEquals(ds.graph.toString(), loaded.graph.toString());
+    }
+    @Test
+    void testBinaryFormatRejectsCorruptFiles(@TempDir Path dir) throws Exception {
+        Graph g = new Graph(3, true);
+        g.addEdge(0, 1, 4);
+        g.addEdge(1, 2, 5);
+        Path good = dir.resolve("good.bin");
+        BinaryGraphFormat.write(g, 0, "", good); // header 28 bytes, offsets at 28, targets at 44
+        byte[] bytes = Files.readAllBytes(good);
+        assertEquals(g.toString(), BinaryGraphFormat.read(good).graph.toString());
+
+        int[][] patches = {
+                {12, -1}, {12, Integer.MAX_VALUE}, {16, -1},  // n, m
+                {24, -1}, {24, 1 << 30},                        // weight model length
+                {28, 1}, {32, 5}, {40, 1},                      // offsets: start, monotone, end
+                {44, 7}, {48, -2}                               // targets
+        };
+        for (int[] patch : patches) {
+            byte[] copy = bytes.clone();
+            ByteBuffer.wrap(copy).order(ByteOrder.LITTLE_ENDIAN).putInt(patch[0], patch[1]);
+            Path bad = Files.write(dir.resolve("bad.bin"), copy);
+            assertThrows(IllegalArgumentException.class, () -> BinaryGraphFormat.read(bad),
+                    "byte " + patch[0] + " = " + patch[1]);
+        }
+    }
+    // --- GraphGenerator tests ---
+    @Test
+    void testGeneratorIsDeterministic() {
+        var gen = new GraphGenerator().seed(11).vertices(5_000).cycleDensity(0.5);
+        assertEquals(gen.toGraph().toString(), gen.toGraph().toString());
+        assertNotEquals(gen.toGraph().toString(), new GraphGenerator().seed(12).vertices(5_000).toGraph().toString());
+    }
+    @Test
+    void testGeneratorBlocksAreTheSccs() {
+        var g = new GraphGenerator().seed(3).vertices(10_000)
+                .sccSizes(GraphGenerator.SccSizes.UNIFORM, 2, 6).layers(8).toGraph();
+        var scc = Tarjan.run(g);
+        for (List<Integer> comp : scc.components) {
+            int min = comp.stream().mapToInt(Integer::intValue).min().orElseThrow();
+            int max = comp.stream().mapToInt(Integer::intValue).max().orElseThrow();
+            assertEquals(comp.size(), max - min + 1); // contiguous block
+            assertTrue(comp.size() <= 6);
+        }
+    }
+    @Test
+    void testGeneratorJsonMatchesInMemoryGraph(@TempDir Path dir) {
+        var gen = new GraphGenerator().seed(5).vertices(2_000);
+        Path file = dir.resolve("synthetic.json");
+        gen.writeJson(file);
+        assertEquals(gen.toGraph().toString(), GraphLoader.loadFromPath(file).graph.toString());
+    }
+    @Test
     void testLoadNonExistingFile() {
         Exception ex = assertThrows(RuntimeException.class, () ->
                 GraphLoader.loadFromResource("no_such_file.json"));
         assertTrue(ex.getMessage().contains("File"));
     }
+
+    // --- GraphPipeline tests ---
+    @Test
+    void testPipelineCachesStagesByContent() {
+        var cache = new GraphPipeline.Cache(2);
+        var ds = GraphLoader.loadFromResource("medium_1.json");
+        var first = GraphPipeline.of(ds.graph, cache);
+        var topo = first.topologicalOrder();
+        // a different Graph object with the same edges shares the cached stages
+        var second = GraphPipeline.of(GraphLoader.loadFromResource("medium_1.json").graph, cache);
+        assertSame(topo, second.topologicalOrder());
+        assertSame(first.condensation(), second.condensation());
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.size());
+
+        var expected = DAGShortestPath.run(first.condensation(), topo, first.componentOf(ds.source));
+        assertArrayEquals(expected.dist, second.shortestPaths(ds.source).dist);
+        // the shared DAG is read-only; the caller's graph stays writable
+        assertThrows(UnsupportedOperationException.class, () -> first.condensation().addEdge(0, 1, 1));
+        assertThrows(UnsupportedOperationException.class, () -> first.condensation().getAdj().get(0).clear());
+        assertThrows(UnsupportedOperationException.class, () -> first.scc().components.get(0).clear());
+        assertThrows(UnsupportedOperationException.class, () -> second.scc().components.clear());
+
+        GraphPipeline.of(GraphLoader.loadFromResource("small_1.json").graph, cache);
+        GraphPipeline.of(GraphLoader.loadFromResource("small_2.json").graph, cache);
+        assertEquals(2, cache.size()); // medium_1 was evicted (LRU)
+        assertNotSame(topo, GraphPipeline.of(ds.graph, cache).topologicalOrder());
+        assertEquals(4, cache.misses());
+    }
+
+    // --- Concurrent analysis helpers ---
+    @Test
+    void testOrderedCsvWriterKeepsSubmissionOrder() throws Exception {
+        var out = new StringWriter();
+        var csv = new org.apache.commons.csv.CSVPrinter(out, org.apache.commons.csv.CSVFormat.DEFAULT);
+        var rows = new OrderedCsvWriter(csv);
+        var executor = VirtualThreads.newExecutor(4);
+        int count = 50;
+        for (int i = count - 1; i >= 0; i--) {
+            int index = i;
+            executor.submit(() -> {
+                if (index == 7) rows.skip(index);
+                else rows.submit(index, "row" + index, index);
+                return null;
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(count, rows.completed());
+        String[] lines = out.toString().split("\r?\n");
+        assertEquals(count - 1, lines.length);
+        assertEquals("row0,0", lines[0]);
+        assertEquals("row8,8", lines[7]);
+        assertEquals("row49,49", lines[count - 2]);
+    }
+
+    // --- VertexReordering tests ---
+    @Test
+    void testReorderingMapsResultsBack() {
+        var g = VertexReordering.shuffle(2_000, 3).apply(new GraphGenerator().seed(19).vertices(2_000).toGraph());
+        var original = Tarjan.run(g);
+        for (var strategy : List.of(VertexReordering.Strategy.BFS, VertexReordering.Strategy.RCM)) {
+            var order = VertexReordering.compute(g, strategy);
+            assertEquals(2_000, Arrays.stream(order.oldId).distinct().count());
+            var mapped = order.mapBack(Tarjan.run(order.apply(g)));
+            for (int v = 0; v < g.getN(); v++) {
+                for (int u : mapped.components.get(mapped.component[v]))
+                    assertEquals(original.component[v], original.component[u]);
+            }
+        }
+        // DAG distances and paths computed on a topologically relabeled condensation
+        var dag = CondensationGraph.build(g, original);
+        var topo = TopologicalSort.sort(dag);
+        var order = VertexReordering.compute(dag, VertexReordering.Strategy.TOPOLOGICAL);
+        var relabeled = order.apply(dag);
+        int src = topo.get(0);
+        var expected = DAGShortestPath.run(dag, topo, src);
+        var actual = DAGShortestPath.run(relabeled, order.toNew(topo), order.newId[src]);
+        assertArrayEquals(expected.dist, order.mapBack(actual.dist));
+        assertArrayEquals(expected.parent, order.mapBackParents(actual.parent));
+        int target = topo.get(topo.size() - 1);
+        assertArrayEquals(expected.pathTo(target), order.mapBackPath(actual.pathTo(order.newId[target])));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> VertexReordering.compute(g, VertexReordering.Strategy.TOPOLOGICAL));
+    }
+
+    // --- Semi-external pipeline tests ---
+    @Test
+    void testSemiExternalPipelineMatchesInMemory(@TempDir Path dir) throws Exception {
+        var ds = new GraphGenerator().seed(21).vertices(5_000).toDataSet("ext");
+        Path file = dir.resolve("ext.bin");
+        BinaryGraphFormat.write(ds, file);
+        var scc = Kosaraju.run(ds.graph);
+        var dag = CondensationGraph.build(ds.graph, scc).toCsr();
+        var topo = TopologicalSort.sort(new Graph(dag));
+
+        Path otherFile = dir.resolve("other.bin");
+        BinaryGraphFormat.write(new GraphGenerator().seed(22).vertices(3_000).toDataSet("other"), otherFile);
+        try (var ext = SemiExternalPipeline.open(file, dir.resolve("work"), 64L << 20);
+             var other = SemiExternalPipeline.open(otherFile, dir.resolve("work"), 64L << 20)) {
+            assertArrayEquals(scc.component, ext.components());
+            var mapped = ext.condensation();
+            other.condensation(); // shares the work directory, must not touch ext's files
+            assertArrayEquals(dag.getOffsets(), mapped.getOffsets());
+            for (int i = 0; i < dag.getEdgesCount(); i++) {
+                assertEquals(dag.getTargets()[i], mapped.target(i));
+                assertEquals(dag.getWeights()[i], mapped.weight(i));
+            }
+            int src = scc.component[ds.source];
+            var graphDag = new Graph(dag);
+            assertArrayEquals(DAGShortestPath.run(graphDag, topo, src).dist, ext.shortestPaths(ds.source).dist);
+            var lp = DAGLongestPath.run(graphDag, topo, src);
+            assertEquals(lp.length(), ext.longestPaths(ds.source).length());
+        }
+        try (var left = Files.list(dir.resolve("work"))) {
+            assertEquals(0, left.count()); // all work files deleted
+        }
+        try (var ext = SemiExternalPipeline.open(file, dir.resolve("work"), 1_000)) {
+            assertThrows(IllegalStateException.class, ext::components);
+        }
+    }
+
+    // --- Pipeline snapshot tests ---
+    @Test
+    void testPipelineSnapshotRoundTrip(@TempDir Path dir) throws Exception {
+        var g = new GraphGenerator().seed(23).vertices(2_000).toDataSet("snap").graph;
+        var first = GraphPipeline.of(g, new GraphPipeline.Cache(1), dir);
+        Path file = dir.resolve(PipelineSnapshot.fileName(g.toCsr()));
+        assertTrue(Files.exists(file));
+
+        var snap = PipelineSnapshot.read(file, g.toCsr());
+        assertNotNull(snap);
+        assertArrayEquals(first.scc().component, snap.scc.component);
+        assertEquals(first.scc().components, snap.scc.components);
+        assertEquals(first.topologicalOrder(), snap.topo);
+        var expected = first.condensation().toCsr();
+        assertArrayEquals(expected.getOffsets(), snap.dag.toCsr().getOffsets());
+        assertArrayEquals(expected.getTargets(), snap.dag.toCsr().getTargets());
+        assertArrayEquals(expected.getWeights(), snap.dag.toCsr().getWeights());
+
+        // a fresh cache (restart) takes the stages from the file
+        assertFalse(first.fromSnapshot());
+        var restarted = GraphPipeline.of(g, new GraphPipeline.Cache(1), dir);
+        assertTrue(restarted.fromSnapshot());
+        assertArrayEquals(first.shortestPaths(0).dist, restarted.shortestPaths(0).dist);
+
+        var other = new GraphGenerator().seed(24).vertices(2_000).toDataSet("other").graph;
+        assertNull(PipelineSnapshot.read(file, other.toCsr()));
+
+        // right graph, inconsistent sections: a reversed order breaks the DAG edges
+        assertTrue(expected.getEdgesCount() > 0);
+        var reversed = new ArrayList<>(first.topologicalOrder());
+        Collections.reverse(reversed);
+        PipelineSnapshot.write(g.toCsr(), first.scc(), first.condensation(), reversed, file);
+        assertNull(PipelineSnapshot.read(file, g.toCsr()));
+        var recovered = GraphPipeline.of(g, new GraphPipeline.Cache(1), dir);
+        assertFalse(recovered.fromSnapshot());
+        assertEquals(first.topologicalOrder(), PipelineSnapshot.read(file, g.toCsr()).topo);
+
+        // member offsets past n: rejected before the members are read
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(32 + 4 * g.getN() + 4, g.getN() + 1);
+        Files.write(file, bytes);
+        assertNull(PipelineSnapshot.read(file, g.toCsr()));
+
+        // concurrent writers of the same snapshot each use their own temp file
+        var writers = Executors.newFixedThreadPool(4);
+        try {
+            var writes = new ArrayList<Future<?>>();
+            for (int t = 0; t < 8; t++) {
+                writes.add(writers.submit(() -> {
+                    PipelineSnapshot.write(g.toCsr(), first.scc(), first.condensation(),
+                            first.topologicalOrder(), file);
+                    return null;
+                }));
+            }
+            for (var w : writes) w.get();
+        } finally {
+            writers.shutdown();
+        }
+        try (var files = Files.list(dir)) {
+            assertEquals(List.of(file), files.toList());
+        }
+        assertNotNull(PipelineSnapshot.read(file, g.toCsr()));
+
+        Files.write(file, new byte[64]);
+        assertThrows(IllegalArgumentException.class, () -> PipelineSnapshot.read(file, g.toCsr()));
+        assertFalse(GraphPipeline.of(g, new GraphPipeline.Cache(1), dir).fromSnapshot());
+        assertTrue(GraphPipeline.of(g, new GraphPipeline.Cache(1), dir).fromSnapshot());
+    }
+
+    // --- Latency histogram / stage profiler tests ---
+    @Test
+    void testLatencyHistogramPercentiles() {
+        LatencyHistogram h = new LatencyHistogram();
+        assertEquals(0, h.percentile(0.99));
+        for (long v = 1; v <= 100_000; v++) h.record(v * 1_000);
+        assertEquals(100_000, h.count());
+        assertEquals(1_000, h.min());
+        assertEquals(100_000_000, h.max());
+        // bucket upper bounds stay within 1/64 of the exact value
+        for (double q : new double[]{0.5, 0.9, 0.99, 0.999}) {
+            long exact = (long) Math.ceil(q * 100_000) * 1_000;
+            long p = h.percentile(q);
+            assertTrue(p >= exact && p <= exact + exact / 64, q + ": " + p + " vs " + exact);
+        }
+        assertEquals(h.max(), h.percentile(1.0));
+        h.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, h.percentile(1.0));
+        assertThrows(IllegalArgumentException.class, () -> h.record(-1));
+        h.reset();
+        assertEquals(0, h.count());
+    }
+    @Test
+    void testStageProfilerWritesPercentileCsv(@TempDir Path dir) throws Exception {
+        StageProfiler profiler = new StageProfiler();
+        for (int i = 0; i < 5; i++) {
+            var span = profiler.start(StageProfiler.Stage.SCC, "small_1.json");
+            Kosaraju.run(GraphLoader.loadFromResource("small_1.json").graph);
+            assertTrue(span.end() > 0);
+        }
+        profiler.start(StageProfiler.Stage.SCC, "large_1.json").end();
+        profiler.start(StageProfiler.Stage.LOAD, "failed.json"); // never ends: nothing recorded
+        // one histogram per dataset, so sizes are not mixed
+        assertEquals(5, profiler.histogram("small_1.json", StageProfiler.Stage.SCC).count());
+        assertEquals(1, profiler.histogram("large_1.json", StageProfiler.Stage.SCC).count());
+        assertNull(profiler.histogram("small_1.json", StageProfiler.Stage.TOPO_SORT));
+        assertEquals(List.of("small_1.json", "large_1.json"), profiler.datasets());
+        Path csv = StageProfiler.latencyPathFor(dir.resolve("results.csv"));
+        assertEquals("results_latency.csv", csv.getFileName().toString());
+        profiler.writeCsv(csv);
+        List<String> lines = Files.readAllLines(csv);
+        assertEquals(3, lines.size()); // header + one row per dataset and stage that ran
+        assertTrue(lines.get(0).startsWith("dataset,stage,count,min_ns,p50_ns"));
+        assertTrue(lines.get(1).startsWith("small_1.json,scc,5,"));
+        assertTrue(lines.get(2).startsWith("large_1.json,scc,1,"));
+    }
+
+    // --- Query server tests ---
+    @Test
+    void testQueryServerAnswersAndReloads(@TempDir Path dir) throws Exception {
+        var ds = GraphLoader.loadFromResource("small_1.json");
+        BinaryGraphFormat.write(GraphLoader.loadFromResource("small_3.json"), dir.resolve("small_3.bin"));
+        var options = new QueryServer.Options().dataDir(dir);
+        try (QueryServer server = QueryServer.start(new InetSocketAddress("127.0.0.1", 0), ds, options)) {
+            String base = "http://127.0.0.1:" + server.port();
+            var snap = server.snapshot();
+            var scc = get(base + "/scc?v=" + ds.source, 200);
+            assertTrue(scc.contains("\"component\":" + snap.scc.component[ds.source]));
+            int target = snap.scc.components.get(snap.topo.get(snap.topo.size() - 1)).get(0);
+            var sp = DAGShortestPath.run(snap.dag, snap.topo, snap.scc.component[ds.source]);
+            String shortest = get(base + "/shortest?src=" + ds.source + "&target=" + target, 200);
+            long d = sp.dist[snap.scc.component[target]];
+            assertTrue(shortest.contains(d == Long.MAX_VALUE ? "\"reachable\":false" : "\"distance\":" + d));
+            assertTrue(shortest.contains("\"component_path\":"));
+            assertTrue(get(base + "/critical?src=" + ds.source, 200).contains("\"length\":"));
+            assertTrue(get(base + "/scc?v=-1", 400).contains("error"));
+            assertTrue(get(base + "/scc?v=x", 400).contains("error"));
+            // snapshot graphs are read-only views
+            assertThrows(UnsupportedOperationException.class, () -> snap.data.graph.addEdge(0, 1, 1));
+            assertThrows(UnsupportedOperationException.class, () -> snap.dag.addEdge(0, 0, 1));
+
+            assertEquals(200, post(base + "/reload?dataset=small_2.json", null));
+            assertEquals(2, server.snapshot().version);
+            assertEquals("small_2.json", server.snapshot().data.name);
+            assertTrue(get(base + "/stats", 200).contains("\"version\":2"));
+            assertEquals("small_1.json", snap.data.name); // readers holding the old snapshot are unaffected
+            // snapshot builds and queries are timed per dataset
+            String latency = get(base + "/latency", 200);
+            assertTrue(latency.contains("\"small_1.json\":{\"scc\":{\"count\":1"), latency);
+            assertTrue(latency.contains("\"shortest_path\":{\"count\":1"), latency);
+            assertTrue(latency.contains("\"small_2.json\":{\"load\":{\"count\":1"), latency);
+            for (var stage : List.of(StageProfiler.Stage.SCC, StageProfiler.Stage.CONDENSATION,
+                    StageProfiler.Stage.TOPO_SORT))
+                assertEquals(1, server.profiler().histogram("small_2.json", stage).count());
+
+            // files only from the data directory, nothing outside it, no browser posts
+            assertEquals(200, post(base + "/reload?dataset=small_3.bin", null));
+            assertEquals("small_3.bin", server.snapshot().data.name);
+            Path outside = Files.writeString(dir.resolveSibling(dir.getFileName() + "-outside.json"), "{}");
+            try {
+                assertEquals(400, post(base + "/reload?dataset=" + outside, null));
+                assertEquals(400, post(base + "/reload?dataset=../" + outside.getFileName(), null));
+            } finally {
+                Files.delete(outside);
+            }
+            assertEquals(400, post(base + "/reload?dataset=/etc/passwd", null));
+            assertEquals(403, post(base + "/reload?dataset=small_2.json", "http://example.com"));
+            assertEquals(3, server.snapshot().version);
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> QueryServer.start(new InetSocketAddress("0.0.0.0", 0), ds));
+    }
+    private static int post(String url, String origin) throws Exception {
+        var request = HttpRequest.newBuilder(URI.create(url)).POST(HttpRequest.BodyPublishers.noBody());
+        if (origin != null) request.header("Origin", origin); // HttpURLConnection drops this header
+        return HttpClient.newHttpClient().send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+    private static String get(String url, int expectedStatus) throws Exception {
+        HttpURLConnection c = (HttpURLConnection) new URL(url).openConnection();
+        assertEquals(expectedStatus, c.getResponseCode());
+        var in = expectedStatus == 200 ? c.getInputStream() : c.getErrorStream();
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
 }